@@ -30,12 +30,19 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("org.springframework.boot:spring-boot-starter-cache")
 
     // Database
     runtimeOnly("org.postgresql:postgresql")
     implementation("org.flywaydb:flyway-core")
     implementation("org.flywaydb:flyway-database-postgresql")
 
+    // Pooled HTTP client for the face-recognition service
+    implementation("org.apache.httpcomponents.client5:httpclient5")
+
+    // Bounded in-process caches (see CacheConfig)
+    implementation("com.github.ben-manes.caffeine:caffeine")
+
     // Lombok
     compileOnly("org.projectlombok:lombok")
     annotationProcessor("org.projectlombok:lombok")
@@ -49,6 +56,44 @@ dependencies {
     testRuntimeOnly("com.h2database:h2")
 }
 
+// The SIMD face matcher uses the incubating Vector API; without the module the
+// scalar matcher is selected at runtime (see FaceMatcherConfig).
+val vectorModuleArgs = listOf("--add-modules", "jdk.incubator.vector")
+
+tasks.withType<JavaCompile> {
+    options.compilerArgs.addAll(vectorModuleArgs)
+}
+
 tasks.withType<Test> {
-    useJUnitPlatform()
+    jvmArgs(vectorModuleArgs)
+}
+
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+// Long-running measurements (tagged "benchmark"); pass -Pbench.rows=... or
+// -Pbench.jdbc.url=... to override the defaults, -Pbench.jfr=true to record
+// build/benchmark.jfr.
+tasks.register<Test>("benchmark") {
+    description = "Runs the tests tagged 'benchmark'."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    maxHeapSize = "1g"
+    testLogging.showStandardStreams = true
+    project.properties.filterKeys { it.startsWith("bench.") }
+        .forEach { (key, value) -> systemProperty(key, value.toString()) }
+    if (project.hasProperty("bench.jfr")) {
+        jvmArgs("-XX:StartFlightRecording=filename=${layout.buildDirectory.get()}/benchmark.jfr,settings=profile")
+    }
+}
+
+tasks.named<org.springframework.boot.gradle.tasks.run.BootRun>("bootRun") {
+    jvmArgs(vectorModuleArgs)
 }
@@ -0,0 +1,24 @@
+package com.bundyclock.common.exception;
+
+import java.time.Duration;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    /** How long the client should wait before retrying, sent as {@code Retry-After}. */
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message) {
+        this(message, DEFAULT_RETRY_AFTER);
+    }
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
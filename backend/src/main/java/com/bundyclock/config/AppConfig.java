@@ -2,13 +2,17 @@ package com.bundyclock.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
+    /** Wall clock for punch timestamps and the business day, replaceable in tests. */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public Clock clock() {
+        return Clock.systemDefaultZone();
     }
 }
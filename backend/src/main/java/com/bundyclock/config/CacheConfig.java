@@ -0,0 +1,33 @@
+package com.bundyclock.config;
+
+import com.bundyclock.domain.employee.EmployeeServiceImpl;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caffeine caches (size-bounded, W-TinyLFU eviction, TTL) for read-mostly lookups.
+ *
+ * <p>The manager is transaction-aware: evictions made inside a transaction are
+ * applied after it commits, so readers do not re-cache the pre-update row while
+ * the update is in flight; the TTL bounds any staleness that slips through.
+ * Hit, miss and eviction counts are published as {@code cache.*} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.employees.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") String spec) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager(
+                EmployeeServiceImpl.CACHE_BY_ID, EmployeeServiceImpl.CACHE_BY_CODE);
+        caffeine.setCaffeineSpec(CaffeineSpec.parse(spec));
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
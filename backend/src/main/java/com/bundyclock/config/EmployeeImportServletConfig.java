@@ -0,0 +1,43 @@
+package com.bundyclock.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Serves {@code POST /api/employees/import} from its own servlet, so the
+ * photo zip can be larger than {@code spring.servlet.multipart.*} allows
+ * every other endpoint, the kiosk uploads included.
+ *
+ * <p>The servlet is a second {@link DispatcherServlet} over the same
+ * application context: the request reaches {@code EmployeeController} through
+ * the usual mappings, advice and converters, and only the multipart limits,
+ * {@code app.employee-import.max-file-size} and {@code max-request-size},
+ * differ. Parts are spooled to disk as for the main servlet.
+ */
+@Configuration
+public class EmployeeImportServletConfig {
+
+    static final String PATH = "/api/employees/import";
+
+    @Bean
+    public ServletRegistrationBean<DispatcherServlet> employeeImportServlet(
+            WebApplicationContext context,
+            MultipartProperties multipartProperties,
+            @Value("${app.employee-import.max-file-size:500MB}") DataSize maxFileSize,
+            @Value("${app.employee-import.max-request-size:520MB}") DataSize maxRequestSize) {
+        MultipartConfigElement defaults = multipartProperties.createMultipartConfig();
+        ServletRegistrationBean<DispatcherServlet> registration =
+                new ServletRegistrationBean<>(new DispatcherServlet(context), PATH);
+        registration.setName("employeeImportServlet");
+        registration.setMultipartConfig(new MultipartConfigElement(defaults.getLocation(),
+                maxFileSize.toBytes(), maxRequestSize.toBytes(), defaults.getFileSizeThreshold()));
+        return registration;
+    }
+}
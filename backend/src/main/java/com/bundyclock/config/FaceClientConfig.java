@@ -0,0 +1,102 @@
+package com.bundyclock.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.function.ToIntFunction;
+
+/**
+ * HTTP client for the Python face-recognition service.
+ *
+ * <p>Connections are pooled and kept alive between requests, so a verify no
+ * longer pays for a TCP handshake. {@code app.face-recognition.http.max-connections}
+ * sizes the pool; a request that finds every connection leased waits up to
+ * {@code acquire-timeout} for one. Concurrency itself is limited by
+ * {@code max-in-flight} in {@code FaceRecognitionClient}, kept at or below the
+ * pool size. Pool usage is published as {@code face.client.pool.*} gauges.
+ */
+@Slf4j
+@Configuration
+public class FaceClientConfig {
+
+    @Bean
+    public PoolingHttpClientConnectionManager faceClientConnectionManager(
+            @Value("${app.face-recognition.http.max-connections:20}") int maxConnections,
+            @Value("${app.face-recognition.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${app.face-recognition.http.read-timeout:30s}") Duration readTimeout,
+            @Value("${app.face-recognition.http.time-to-live:5m}") Duration timeToLive) {
+        log.info("Face service client: {} pooled connections, connect {} / read {}",
+                maxConnections, connectTimeout, readTimeout);
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                // Every request goes to the same host, so the per-route limit is the pool size.
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setTcpNoDelay(true)
+                        .setSoKeepAlive(true)
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public RestTemplate faceRecognitionRestTemplate(
+            PoolingHttpClientConnectionManager faceClientConnectionManager,
+            @Value("${app.face-recognition.http.acquire-timeout:5s}") Duration acquireTimeout,
+            @Value("${app.face-recognition.http.read-timeout:30s}") Duration readTimeout,
+            @Value("${app.face-recognition.http.idle-timeout:1m}") Duration idleTimeout) {
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(faceClientConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(acquireTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .evictExpiredConnections()
+                .build();
+        // No interceptors and no BufferingClientHttpRequestFactory: the request body is streamed
+        // (chunked) as the multipart converter writes it, so images are never buffered whole here.
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    @Bean
+    public MeterBinder faceClientPoolMetrics(PoolingHttpClientConnectionManager faceClientConnectionManager) {
+        return registry -> {
+            poolGauge(registry, faceClientConnectionManager, "leased", PoolStats::getLeased);
+            poolGauge(registry, faceClientConnectionManager, "available", PoolStats::getAvailable);
+            poolGauge(registry, faceClientConnectionManager, "pending", PoolStats::getPending);
+            poolGauge(registry, faceClientConnectionManager, "max", PoolStats::getMax);
+        };
+    }
+
+    private static void poolGauge(MeterRegistry registry,
+                                  PoolingHttpClientConnectionManager manager,
+                                  String name, ToIntFunction<PoolStats> stat) {
+        Gauge.builder("face.client.pool." + name, manager, m -> stat.applyAsInt(m.getTotalStats()))
+                .description("Face service HTTP connections: " + name)
+                .register(registry);
+    }
+}
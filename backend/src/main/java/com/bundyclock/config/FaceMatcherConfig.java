@@ -0,0 +1,66 @@
+package com.bundyclock.config;
+
+import com.bundyclock.domain.face.EmbeddingVectorSource;
+import com.bundyclock.domain.face.FaceMatcher;
+import com.bundyclock.domain.face.HnswFaceMatcher;
+import com.bundyclock.domain.face.QuantizedFaceMatcher;
+import com.bundyclock.domain.face.ScalarFaceMatcher;
+import com.bundyclock.domain.face.VectorizedFaceMatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the face matching kernel.
+ *
+ * <p>{@code app.face-recognition.matcher}: {@code scalar}, {@code vector},
+ * {@code auto} (vector when {@code jdk.incubator.vector} is enabled, scalar otherwise),
+ * {@code hnsw} for approximate search over large galleries, tuned with
+ * {@code app.face-recognition.hnsw.*}, or {@code int8} for a quantised gallery
+ * with exact reranking, tuned with {@code app.face-recognition.quantization.*}.
+ */
+@Slf4j
+@Configuration
+public class FaceMatcherConfig {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    @Bean
+    public FaceMatcher faceMatcher(
+            @Value("${app.face-recognition.matcher:auto}") String matcher,
+            @Value("${app.face-recognition.hnsw.m:16}") int hnswM,
+            @Value("${app.face-recognition.hnsw.ef-construction:200}") int hnswEfConstruction,
+            @Value("${app.face-recognition.hnsw.ef-search:64}") int hnswEfSearch,
+            @Value("${app.face-recognition.quantization.rerank-k:10}") int rerankK,
+            @Value("${app.face-recognition.quantization.tolerance:0.02}") float rerankTolerance,
+            EmbeddingVectorSource embeddingVectorSource) {
+        boolean vectorAvailable = ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+        switch (matcher.toLowerCase()) {
+            case "scalar" -> {
+                return new ScalarFaceMatcher();
+            }
+            case "vector", "auto" -> {
+                if (vectorAvailable) {
+                    log.info("Face matcher: SIMD kernel ({})", VECTOR_MODULE);
+                    return new VectorizedFaceMatcher();
+                }
+                if (matcher.equalsIgnoreCase("vector")) {
+                    log.warn("Face matcher 'vector' requested but {} is not enabled "
+                            + "(--add-modules {}); falling back to scalar", VECTOR_MODULE, VECTOR_MODULE);
+                }
+                return new ScalarFaceMatcher();
+            }
+            case "hnsw" -> {
+                log.info("Face matcher: HNSW (m={}, efConstruction={}, efSearch={})",
+                        hnswM, hnswEfConstruction, hnswEfSearch);
+                return new HnswFaceMatcher(hnswM, hnswEfConstruction, hnswEfSearch);
+            }
+            case "int8" -> {
+                log.info("Face matcher: int8 quantised (rerankK={}, tolerance={})", rerankK, rerankTolerance);
+                return new QuantizedFaceMatcher(embeddingVectorSource, rerankK, rerankTolerance);
+            }
+            default -> throw new IllegalArgumentException("Unknown face matcher: " + matcher);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.bundyclock.config;
+
+import com.bundyclock.storage.ImageStore;
+import com.bundyclock.storage.LocalImageStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Selects the image store.
+ *
+ * <p>{@code app.storage.type}: {@code local}, content-addressed files under
+ * {@code app.storage.image-dir}, with background writes tuned by
+ * {@code app.storage.async.*}.
+ */
+@Slf4j
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    public ImageStore imageStore(
+            @Value("${app.storage.type:local}") String type,
+            @Value("${app.storage.image-dir:./uploads/faces}") Path imageDir,
+            @Value("${app.storage.async.threads:2}") int asyncThreads,
+            @Value("${app.storage.async.queue-capacity:512}") int queueCapacity,
+            MeterRegistry meterRegistry) throws IOException {
+        switch (type.toLowerCase()) {
+            case "local" -> {
+                log.info("Image store: local filesystem at {}", imageDir.toAbsolutePath());
+                return new LocalImageStore(imageDir, asyncThreads, queueCapacity, meterRegistry);
+            }
+            default -> throw new IllegalArgumentException("Unknown image store: " + type);
+        }
+    }
+}
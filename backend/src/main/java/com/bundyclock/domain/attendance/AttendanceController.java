@@ -1,16 +1,26 @@
 package com.bundyclock.domain.attendance;
 
 import com.bundyclock.common.dto.ApiResponse;
+import com.bundyclock.common.dto.CursorPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/attendance")
@@ -40,14 +50,92 @@ public class AttendanceController {
         return ResponseEntity.ok(ApiResponse.ok("Time-Out recorded", log));
     }
 
+    @PostMapping(value = "/punch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Verify a face and record Time-In or Time-Out for the matched employee")
+    public ResponseEntity<ApiResponse<PunchResult>> punch(
+            @RequestPart("image") MultipartFile image) {
+
+        PunchResult result = attendanceService.punch(image);
+        return ResponseEntity.ok(ApiResponse.ok(result.getMessage(), result));
+    }
+
     @GetMapping
-    @Operation(summary = "Get all attendance logs")
-    public ResponseEntity<ApiResponse<List<AttendanceLog>>> getAllLogs() {
-        return ResponseEntity.ok(ApiResponse.ok(attendanceService.getAllLogs()));
+    @Operation(summary = "List attendance logs, newest first, with optional filters and keyset pagination")
+    public ResponseEntity<ApiResponse<CursorPage<AttendanceLog>>> searchLogs(
+            @RequestParam(required = false) UUID employeeId,
+            @RequestParam(required = false) AttendanceLog.AttendanceType type,
+            @RequestParam(required = false) Boolean verified,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        AttendanceLogFilter filter = new AttendanceLogFilter(employeeId, type, verified, from, to);
+        return ResponseEntity.ok(ApiResponse.ok(attendanceService.searchLogs(filter, cursor, limit)));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Stream attendance logs as CSV or NDJSON for payroll (gzip when accepted)")
+    public ResponseEntity<StreamingResponseBody> exportLogs(
+            @RequestParam(required = false) UUID employeeId,
+            @RequestParam(required = false) AttendanceLog.AttendanceType type,
+            @RequestParam(required = false) Boolean verified,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        AttendanceExporter.Format exportFormat = AttendanceExporter.Format.of(format);
+        AttendanceLogFilter filter = new AttendanceLogFilter(employeeId, type, verified, from, to);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 1 << 16);
+                attendanceService.exportLogs(filter, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                attendanceService.exportLogs(filter, exportFormat, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("attendance." + exportFormat.extension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Server-Sent Events feed of punches as they are recorded, optionally filtered")
+    public SseEmitter streamLogs(
+            @RequestParam(required = false) UUID employeeId,
+            @RequestParam(required = false) String department) {
+        return attendanceService.streamLogs(employeeId, department);
+    }
+
+    @GetMapping("/timesheet")
+    @Operation(summary = "Daily worked, overtime and late minutes for an employee (dates inclusive)")
+    public ResponseEntity<ApiResponse<List<DailyAttendanceSummary>>> getTimesheet(
+            @RequestParam UUID employeeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(ApiResponse.ok(attendanceService.getTimesheet(employeeId, from, to)));
+    }
+
+    @GetMapping("/timesheet/report")
+    @Operation(summary = "Monthly timesheet totals per employee of a department (month as yyyy-MM)")
+    public ResponseEntity<ApiResponse<List<TimesheetReportRow>>> getDepartmentReport(
+            @RequestParam String department,
+            @RequestParam YearMonth month) {
+        return ResponseEntity.ok(ApiResponse.ok(attendanceService.getDepartmentReport(department, month)));
     }
 
     @GetMapping("/employee/{employeeId}")
-    @Operation(summary = "Get attendance logs for a specific employee")
+    @Operation(summary = "Get all attendance logs for a specific employee; use GET /api/attendance with employeeId "
+            + "to page through a date range, or the timesheet for daily totals")
     public ResponseEntity<ApiResponse<List<AttendanceLog>>> getLogsByEmployee(
             @PathVariable UUID employeeId) {
         return ResponseEntity.ok(ApiResponse.ok(attendanceService.getLogsByEmployee(employeeId)));
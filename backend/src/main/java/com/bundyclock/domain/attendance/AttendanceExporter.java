@@ -0,0 +1,245 @@
+package com.bundyclock.domain.attendance;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams attendance logs for payroll as CSV or NDJSON.
+ *
+ * <p>Rows are read with plain JDBC, forward-only, with a fetch size inside a
+ * read-only transaction (which the PostgreSQL driver needs to use a cursor
+ * instead of buffering the whole result), and written to the output as they
+ * arrive. No entities are created, so memory stays flat whatever the range.
+ */
+@Slf4j
+@Component
+public class AttendanceExporter {
+
+    private static final String SELECT = "SELECT l.id, l.employee_id, e.employee_code, e.name, l.timestamp, "
+            + "l.type, l.confidence_score, l.verified "
+            + "FROM attendance_logs l JOIN employees e ON e.id = l.employee_id";
+    private static final String CSV_HEADER =
+            "id,employee_id,employee_code,employee_name,timestamp,type,confidence_score,verified\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    public AttendanceExporter(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.attendance.export.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        /**
+         * @throws IllegalArgumentException for anything but {@code csv} or {@code ndjson}
+         */
+        public static Format of(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    /**
+     * Writes every log matching {@code filter}, oldest first, to {@code out}.
+     * The stream is flushed but not closed.
+     *
+     * @return number of rows written
+     */
+    public long export(AttendanceLogFilter filter, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        StringBuilder sql = new StringBuilder(SELECT).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (filter.employeeId() != null) {
+            sql.append(" AND l.employee_id = ?");
+            args.add(filter.employeeId());
+        }
+        if (filter.type() != null) {
+            sql.append(" AND l.type = ?");
+            args.add(filter.type().name());
+        }
+        if (filter.verified() != null) {
+            sql.append(" AND l.verified = ?");
+            args.add(filter.verified());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND l.timestamp >= ?");
+            args.add(filter.from().toOffsetDateTime());
+        }
+        if (filter.to() != null) {
+            sql.append(" AND l.timestamp < ?");
+            args.add(filter.to().toOffsetDateTime());
+        }
+        sql.append(" ORDER BY l.timestamp, l.id");
+
+        long start = System.nanoTime();
+        long[] count = {0};
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < args.size(); i++) {
+                    statement.setObject(i + 1, args.get(i));
+                }
+                return statement;
+            }, (RowCallbackHandler) resultSet -> {
+                try {
+                    rows.write(resultSet);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            // Most often the client went away; the transaction is already rolled back.
+            throw e.getCause();
+        }
+        rows.finish();
+        writer.flush();
+        log.info("Exported {} attendance logs as {} in {} ms",
+                count[0], format, (System.nanoTime() - start) / 1_000_000);
+        return count[0];
+    }
+
+    private interface RowWriter {
+        void write(ResultSet row) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            writer.write(row.getString(1));
+            writer.write(',');
+            writer.write(row.getString(2));
+            writer.write(',');
+            writeEscaped(row.getString(3));
+            writer.write(',');
+            writeEscaped(row.getString(4));
+            writer.write(',');
+            writer.write(row.getObject(5, OffsetDateTime.class).toString());
+            writer.write(',');
+            writer.write(row.getString(6));
+            writer.write(',');
+            BigDecimal score = row.getBigDecimal(7);
+            if (score != null) writer.write(score.toPlainString());
+            writer.write(',');
+            writer.write(Boolean.toString(row.getBoolean(8)));
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void writeEscaped(String value) throws IOException {
+            if (value == null) return;
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private static final JsonFactory JSON = new JsonFactory();
+
+        private final JsonGenerator json;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.json = JSON.createGenerator(writer).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            json.writeStartObject();
+            json.writeStringField("id", row.getString(1));
+            json.writeStringField("employeeId", row.getString(2));
+            json.writeStringField("employeeCode", row.getString(3));
+            json.writeStringField("employeeName", row.getString(4));
+            json.writeStringField("timestamp", row.getObject(5, OffsetDateTime.class).toString());
+            json.writeStringField("type", row.getString(6));
+            BigDecimal score = row.getBigDecimal(7);
+            if (score != null) {
+                json.writeNumberField("confidenceScore", score);
+            } else {
+                json.writeNullField("confidenceScore");
+            }
+            json.writeBooleanField("verified", row.getBoolean(8));
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.close();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.bundyclock.domain.attendance;
+
+import com.bundyclock.common.exception.ResourceNotFoundException;
+import com.bundyclock.common.exception.ServiceUnavailableException;
+import com.bundyclock.domain.employee.Employee;
+import com.bundyclock.domain.employee.EmployeeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes recorded punches to Server-Sent Events subscribers.
+ *
+ * <p>The punch path only offers the committed log to a bounded inbox and
+ * returns; it never waits on a subscriber or the database. A dispatcher
+ * thread looks up the employee's name and department, then offers the event
+ * to the queue of every subscriber whose filter matches. Each subscriber has
+ * its own bounded queue drained by its own virtual thread, so one slow client
+ * only fills its own queue — and is disconnected when it is full. If the inbox
+ * itself is full the event is dropped for everyone; clients that must not
+ * miss punches reload the log listing on reconnect.
+ */
+@Slf4j
+@Component
+public class AttendanceFeed {
+
+    private static final Duration HEARTBEAT = Duration.ofSeconds(15);
+
+    private final EmployeeService employeeService;
+    private final BlockingQueue<AttendanceLog> inbox;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final int subscriberBuffer;
+    private final int maxSubscribers;
+    private final Counter droppedEvents;
+    private final Counter droppedSubscribers;
+    private final Thread dispatcher;
+
+    public AttendanceFeed(
+            EmployeeService employeeService,
+            MeterRegistry meterRegistry,
+            @Value("${app.attendance.feed.inbox-capacity:1024}") int inboxCapacity,
+            @Value("${app.attendance.feed.subscriber-buffer:256}") int subscriberBuffer,
+            @Value("${app.attendance.feed.max-subscribers:200}") int maxSubscribers) {
+        this.employeeService = employeeService;
+        this.inbox = new ArrayBlockingQueue<>(inboxCapacity);
+        this.subscriberBuffer = subscriberBuffer;
+        this.maxSubscribers = maxSubscribers;
+        this.droppedEvents = meterRegistry.counter("attendance.feed.dropped.events");
+        this.droppedSubscribers = meterRegistry.counter("attendance.feed.dropped.subscribers");
+        meterRegistry.gauge("attendance.feed.subscribers", subscribers, Set::size);
+        this.dispatcher = Thread.ofVirtual().name("attendance-feed").start(this::dispatch);
+    }
+
+    /**
+     * Subscribes to punches, optionally only one employee's or one department's.
+     *
+     * @throws ServiceUnavailableException when {@code max-subscribers} are connected
+     */
+    public SseEmitter subscribe(UUID employeeId, String department) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceUnavailableException("Too many attendance feed subscribers, try again later");
+        }
+        Subscriber subscriber = new Subscriber(employeeId, department);
+        subscribers.add(subscriber);
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(e -> subscriber.close());
+        subscriber.sender = Thread.ofVirtual().name("attendance-feed-subscriber").start(subscriber::drain);
+        return subscriber.emitter;
+    }
+
+    /** Runs on the punch thread after commit (or after journaling, which has no transaction). */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecorded(AttendanceRecordedEvent event) {
+        if (subscribers.isEmpty()) return;
+        if (!inbox.offer(event.log())) droppedEvents.increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.interrupt();
+        subscribers.forEach(Subscriber::close);
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            AttendanceLog entry;
+            try {
+                entry = inbox.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                AttendanceFeedEvent event = toFeedEvent(entry);
+                for (Subscriber subscriber : subscribers) {
+                    if (!subscriber.accepts(event)) continue;
+                    if (!subscriber.queue.offer(event)) {
+                        // Never wait on a slow client; it reconnects and reloads.
+                        log.info("Disconnecting slow attendance feed subscriber");
+                        droppedSubscribers.increment();
+                        subscriber.close();
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not dispatch attendance log {}: {}", entry.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private AttendanceFeedEvent toFeedEvent(AttendanceLog entry) {
+        Employee employee;
+        try {
+            employee = employeeService.getEmployeeById(entry.getEmployeeId());
+        } catch (ResourceNotFoundException e) {
+            employee = null;
+        }
+        return new AttendanceFeedEvent(
+                entry.getId(),
+                entry.getEmployeeId(),
+                employee != null ? employee.getName() : null,
+                employee != null ? employee.getDepartment() : null,
+                entry.getType(),
+                entry.getTimestamp(),
+                entry.getConfidenceScore(),
+                entry.getVerified());
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter = new SseEmitter();
+        private final BlockingQueue<AttendanceFeedEvent> queue = new ArrayBlockingQueue<>(subscriberBuffer);
+        private final UUID employeeId;
+        private final String department;
+        private volatile boolean closed;
+        private volatile Thread sender;
+
+        Subscriber(UUID employeeId, String department) {
+            this.employeeId = employeeId;
+            this.department = department;
+        }
+
+        boolean accepts(AttendanceFeedEvent event) {
+            return (employeeId == null || employeeId.equals(event.employeeId()))
+                    && (department == null || department.equalsIgnoreCase(event.department()));
+        }
+
+        /**
+         * Sends queued events until the subscriber is closed or the client goes
+         * away; a comment every {@link #HEARTBEAT} detects dead connections.
+         */
+        void drain() {
+            try {
+                while (!closed) {
+                    AttendanceFeedEvent event = queue.poll(HEARTBEAT.toSeconds(), TimeUnit.SECONDS);
+                    if (closed) break;
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else {
+                        emitter.send(SseEmitter.event().id(event.id().toString()).name("attendance").data(event));
+                    }
+                }
+                emitter.complete();
+            } catch (InterruptedException e) {
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // Client disconnected or the emitter already completed; the container cleans up.
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Removes the subscriber and wakes its sender, which completes the
+         * emitter itself — so the caller never blocks on a stuck write.
+         */
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            Thread thread = sender;
+            if (thread != null && thread != Thread.currentThread()) thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.bundyclock.domain.attendance;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/** A recorded punch as pushed to {@code /api/attendance/stream} subscribers. */
+public record AttendanceFeedEvent(
+        UUID id,
+        UUID employeeId,
+        String employeeName,
+        String department,
+        AttendanceLog.AttendanceType type,
+        ZonedDateTime timestamp,
+        BigDecimal confidenceScore,
+        Boolean verified) {
+}
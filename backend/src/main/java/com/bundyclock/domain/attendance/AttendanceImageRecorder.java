@@ -0,0 +1,239 @@
+package com.bundyclock.domain.attendance;
+
+import com.bundyclock.domain.face.FaceImagePreprocessor;
+import com.bundyclock.storage.ImageStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the image of each punch for audit without adding to punch latency.
+ *
+ * <p>The punch copies the image and hands it to
+ * {@link ImageStore#putAsync(java.util.concurrent.Callable)}, whose bounded
+ * queue ({@code app.storage.async.*}) is the only background-write path; the
+ * key of each stored image is collected, and a scheduled flush sets
+ * {@code image_path} for the collected logs in one JDBC batch. In
+ * write-behind mode a log may not have reached the table yet; its update is
+ * retried on later flushes for up to {@code update-retention}.
+ *
+ * <p>When the store's writers fall behind, {@code overflow} decides what
+ * gives. With {@code downsample}, an image whose write starts while the
+ * store's queue is more than {@code downsample-above} full is re-encoded at
+ * {@code downsample-dimension} pixels so the backlog drains faster; with
+ * {@code drop} it is stored as is. Either way a punch whose image finds the
+ * queue full is recorded without it. Published as the
+ * {@code attendance.audit.write} timer and {@code attendance.audit.images}
+ * tagged {@code result=stored|downsampled|dropped|failed}; the queue itself is
+ * {@code image.store.queue}.
+ */
+@Slf4j
+@Component
+public class AttendanceImageRecorder {
+
+    // The timestamp bound prunes partitions; it is a range since the column keeps microseconds and the clock may not.
+    private static final String UPDATE_SQL =
+            "UPDATE attendance_logs SET image_path = ? WHERE id = ? AND timestamp BETWEEN ? AND ?";
+    private static final int[] UPDATE_TYPES = {Types.VARCHAR, Types.OTHER, Types.TIMESTAMP_WITH_TIMEZONE,
+            Types.TIMESTAMP_WITH_TIMEZONE};
+    private static final float DOWNSAMPLE_QUALITY = 0.7f;
+
+    enum Overflow {
+        DROP,
+        DOWNSAMPLE
+    }
+
+    private final ImageStore imageStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Overflow overflow;
+    private final double downsampleAbove;
+    private final int downsampleDimension;
+    private final int batchSize;
+    private final Duration updateRetention;
+    private final ConcurrentLinkedQueue<PendingUpdate> updates = new ConcurrentLinkedQueue<>();
+    private final Timer writeTimer;
+    private final Counter stored;
+    private final Counter downsampled;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public AttendanceImageRecorder(
+            ImageStore imageStore,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.attendance.audit-images.enabled:true}") boolean enabled,
+            @Value("${app.attendance.audit-images.overflow:downsample}") String overflow,
+            @Value("${app.attendance.audit-images.downsample-above:0.5}") double downsampleAbove,
+            @Value("${app.attendance.audit-images.downsample-dimension:320}") int downsampleDimension,
+            @Value("${app.attendance.audit-images.batch-size:500}") int batchSize,
+            @Value("${app.attendance.audit-images.update-retention:5m}") Duration updateRetention) {
+        this.imageStore = imageStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.overflow = Overflow.valueOf(overflow.toUpperCase(Locale.ROOT));
+        this.downsampleAbove = downsampleAbove;
+        this.downsampleDimension = downsampleDimension;
+        this.batchSize = batchSize;
+        this.updateRetention = updateRetention;
+        this.writeTimer = Timer.builder("attendance.audit.write")
+                .description("Time from a punch to its audit image being stored, queueing and downsampling included")
+                .register(meterRegistry);
+        this.stored = images(meterRegistry, "stored");
+        this.downsampled = images(meterRegistry, "downsampled");
+        this.dropped = images(meterRegistry, "dropped");
+        this.failed = images(meterRegistry, "failed");
+    }
+
+    /**
+     * Queues the image of a recorded punch for the image store. Never blocks:
+     * when the store's queue is full the image is dropped and the punch
+     * stands without it.
+     */
+    public void record(AttendanceLog entry, MultipartFile image) {
+        if (!enabled || image == null || image.isEmpty()) return;
+        // The upload is gone once the request completes, so the bytes are copied now, but only if there is room.
+        if (imageStore.writeBacklog() >= 1.0) {
+            dropped.increment();
+            return;
+        }
+        byte[] content;
+        try {
+            content = image.getBytes();
+        } catch (IOException e) {
+            failed.increment();
+            log.warn("Could not read the audit image of attendance log {}: {}", entry.getId(), e.getMessage());
+            return;
+        }
+        UUID logId = entry.getId();
+        OffsetDateTime timestamp = entry.getTimestamp().toOffsetDateTime();
+        AtomicBoolean shrunk = new AtomicBoolean();
+        long start = System.nanoTime();
+        imageStore.putAsync(() -> {
+            if (overflow != Overflow.DOWNSAMPLE || imageStore.writeBacklog() < downsampleAbove) return content;
+            byte[] smaller = downsample(content);
+            shrunk.set(smaller != content);
+            return smaller;
+        }).whenComplete((saved, error) -> {
+            writeTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause == null) {
+                updates.add(new PendingUpdate(logId, timestamp, saved.key()));
+                (shrunk.get() ? downsampled : stored).increment();
+            } else if (cause instanceof RejectedExecutionException) {
+                dropped.increment();
+            } else {
+                failed.increment();
+                log.warn("Could not store the audit image of attendance log {}: {}", logId, cause.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Sets {@code image_path} for the images stored since the last flush.
+     *
+     * @return number of logs updated
+     */
+    @Scheduled(fixedDelayString = "${app.attendance.audit-images.flush-interval:PT2S}")
+    public int flush() {
+        List<PendingUpdate> batch = new ArrayList<>();
+        List<PendingUpdate> retry = new ArrayList<>();
+        int updated = 0;
+        PendingUpdate next;
+        while ((next = updates.poll()) != null) {
+            batch.add(next);
+            if (batch.size() == batchSize || updates.isEmpty()) {
+                updated += update(batch, retry);
+                batch.clear();
+            }
+        }
+        updates.addAll(retry);
+        return updated;
+    }
+
+    /**
+     * Drains the image store before the last flush: writes still queued there
+     * complete into pending updates, which would otherwise never be flushed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        try {
+            imageStore.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private int update(List<PendingUpdate> batch, List<PendingUpdate> retry) {
+        List<Object[]> rows = batch.stream()
+                .map(update -> new Object[]{update.key(), update.logId(),
+                        update.timestamp().minusNanos(1_000), update.timestamp().plusNanos(1_000)})
+                .toList();
+        int[] counts;
+        try {
+            counts = jdbcTemplate.batchUpdate(UPDATE_SQL, rows, UPDATE_TYPES);
+        } catch (DataAccessException e) {
+            log.warn("Could not record audit image paths, will retry: {}", e.getMessage());
+            retry.addAll(batch);
+            return 0;
+        }
+        int updated = 0;
+        OffsetDateTime expired = OffsetDateTime.now().minus(updateRetention);
+        for (int i = 0; i < batch.size(); i++) {
+            if (counts[i] != 0) {
+                updated++;
+            } else if (batch.get(i).timestamp().isAfter(expired)) {
+                // Still in the write-behind journal.
+                retry.add(batch.get(i));
+            } else {
+                log.warn("Attendance log {} not found; its audit image {} stays unlinked",
+                        batch.get(i).logId(), batch.get(i).key());
+            }
+        }
+        return updated;
+    }
+
+    /** A smaller JPEG of {@code content}, or {@code content} itself when that would not be smaller. */
+    private byte[] downsample(byte[] content) throws IOException {
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(content));
+        if (decoded == null) return content;
+        byte[] encoded = FaceImagePreprocessor.encodeJpeg(
+                FaceImagePreprocessor.downscale(decoded, downsampleDimension), DOWNSAMPLE_QUALITY);
+        return encoded.length < content.length ? encoded : content;
+    }
+
+    private static Counter images(MeterRegistry registry, String result) {
+        return Counter.builder("attendance.audit.images")
+                .description("Punch images stored for audit, or lost to a full queue or a failed write")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record PendingUpdate(UUID logId, OffsetDateTime timestamp, String key) {
+    }
+}
@@ -0,0 +1,296 @@
+package com.bundyclock.domain.attendance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-behind journal for attendance logs.
+ *
+ * <p>When {@code app.attendance.write-behind.enabled} is set, a punch is
+ * acknowledged once its record is appended and forced to the active segment
+ * file. A scheduled flush seals the active segment, inserts the sealed
+ * segments' records into {@code attendance_logs} in JDBC batches, folds them
+ * into the daily timesheet summaries in the same transaction and deletes
+ * them. Records carry their own id and the insert ignores ids that already
+ * exist, so a segment interrupted mid-flush is simply replayed. Segments left
+ * over from a crash are flushed before the punch state cache is warmed, even
+ * when write-behind has since been disabled.
+ *
+ * <p>Record layout (big-endian, {@value #RECORD_BYTES} bytes): log id, employee
+ * id, timestamp in epoch microseconds, type ordinal, verified flag, confidence
+ * score × 10⁴ (−1 when absent) and a CRC32 of the preceding bytes. A torn
+ * record at the end of a segment fails the check and is dropped with its
+ * unacknowledged punch.
+ */
+@Slf4j
+@Component
+public class AttendanceJournal {
+
+    static final int RECORD_BYTES = 16 + 16 + 8 + 1 + 1 + 4 + 4;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String INSERT_SQL = "INSERT INTO attendance_logs "
+            + "(id, employee_id, timestamp, type, confidence_score, verified) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (id, timestamp) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TimesheetEngine timesheetEngine;
+    private final boolean enabled;
+    private final Path directory;
+    private final int batchSize;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private FileChannel active;
+    private long nextSequence;
+
+    public AttendanceJournal(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            TimesheetEngine timesheetEngine,
+            @Value("${app.attendance.write-behind.enabled:false}") boolean enabled,
+            @Value("${app.attendance.write-behind.directory:./data/attendance-journal}") String directory,
+            @Value("${app.attendance.write-behind.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.timesheetEngine = timesheetEngine;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.batchSize = batchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Appends a log and forces it to disk. The entry is given an id (and a
+     * creation time for the response) since it is not persisted through JPA.
+     */
+    public AttendanceLog append(AttendanceLog entry) {
+        entry.setId(UUID.randomUUID());
+        entry.setCreatedAt(entry.getTimestamp());
+        ByteBuffer record = encode(entry);
+
+        appendLock.lock();
+        try {
+            if (active == null) openNextSegment();
+            while (record.hasRemaining()) {
+                active.write(record);
+            }
+            active.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to attendance journal", e);
+        } finally {
+            appendLock.unlock();
+        }
+        return entry;
+    }
+
+    /** Flushes segments left over from the previous run, after the timesheet backfill. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void replay() {
+        if (!Files.isDirectory(directory)) return;
+        int inserted = flush();
+        if (inserted > 0) log.info("Attendance journal replayed — {} logs", inserted);
+    }
+
+    /**
+     * Seals the active segment and inserts every sealed segment.
+     *
+     * @return number of records written to the database
+     */
+    @Scheduled(fixedDelayString = "${app.attendance.write-behind.flush-interval:PT1S}")
+    public int flush() {
+        if (!Files.isDirectory(directory)) return 0;
+        flushLock.lock();
+        try {
+            long sealedBefore = seal();
+            int flushed = 0;
+            for (Path segment : segmentsBefore(sealedBefore)) {
+                flushed += flushSegment(segment);
+                Files.delete(segment);
+            }
+            return flushed;
+        } catch (IOException | DataAccessException e) {
+            log.warn("Attendance journal flush failed, will retry: {}", e.getMessage());
+            return 0;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Closes the active segment if it holds records.
+     *
+     * @return the sequence number below which every segment is sealed
+     */
+    private long seal() throws IOException {
+        appendLock.lock();
+        try {
+            initSequence();
+            if (active != null && active.size() > 0) {
+                active.close();
+                active = null;
+            }
+            return active == null ? nextSequence : nextSequence - 1;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private List<Path> segmentsBefore(long sequence) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> sequenceOf(path) >= 0 && sequenceOf(path) < sequence)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private int flushSegment(Path segment) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+        List<Object[]> rows = new ArrayList<>();
+        while (data.remaining() >= RECORD_BYTES) {
+            Object[] row = decode(data);
+            if (row == null) {
+                log.warn("Attendance journal {} has a corrupt record; dropping the rest of the segment", segment);
+                break;
+            }
+            rows.add(row);
+        }
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            insert(rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+        return rows.size();
+    }
+
+    private void insert(List<Object[]> rows) {
+        int[] types = {Types.OTHER, Types.OTHER, Types.TIMESTAMP_WITH_TIMEZONE, Types.VARCHAR, Types.DECIMAL,
+                Types.BOOLEAN};
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows, types);
+                rows.forEach(this::applyToTimesheet);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Usually an employee deleted after punching; keep every row that can still be written.
+            for (Object[] row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.update(INSERT_SQL, row, types);
+                        applyToTimesheet(row);
+                    });
+                } catch (DataIntegrityViolationException rowError) {
+                    log.warn("Dropping journaled attendance log {}: {}", row[0], rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    /** Replayed rows were applied before; the summary skips punches it has already seen. */
+    private void applyToTimesheet(Object[] row) {
+        timesheetEngine.apply((UUID) row[1], AttendanceLog.AttendanceType.valueOf((String) row[3]),
+                ((OffsetDateTime) row[2]).toZonedDateTime());
+    }
+
+    private void openNextSegment() throws IOException {
+        Files.createDirectories(directory);
+        initSequence();
+        Path path = directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        active = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        nextSequence++;
+    }
+
+    /** Continues numbering after the segments already on disk. Called with {@code appendLock} held. */
+    private void initSequence() throws IOException {
+        if (nextSequence > 0) return;
+        nextSequence = 1;
+        if (!Files.isDirectory(directory)) return;
+        try (Stream<Path> files = Files.list(directory)) {
+            nextSequence = files.mapToLong(AttendanceJournal::sequenceOf).max().orElse(0) + 1;
+        }
+    }
+
+    /** Sequence number of a segment file, or −1 for any other file. */
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) return -1;
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static ByteBuffer encode(AttendanceLog entry) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES);
+        buffer.putLong(entry.getId().getMostSignificantBits())
+                .putLong(entry.getId().getLeastSignificantBits())
+                .putLong(entry.getEmployeeId().getMostSignificantBits())
+                .putLong(entry.getEmployeeId().getLeastSignificantBits())
+                .putLong(ChronoUnit.MICROS.between(Instant.EPOCH, entry.getTimestamp().toInstant()))
+                .put((byte) entry.getType().ordinal())
+                .put((byte) (Boolean.TRUE.equals(entry.getVerified()) ? 1 : 0))
+                .putInt(entry.getConfidenceScore() != null
+                        ? entry.getConfidenceScore().movePointRight(4).intValue() : -1);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, RECORD_BYTES - 4);
+        buffer.putInt((int) crc.getValue());
+        return buffer.flip();
+    }
+
+    /** Decodes one record into insert parameters, or returns {@code null} if its checksum fails. */
+    static Object[] decode(ByteBuffer data) {
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), data.position(), RECORD_BYTES - 4);
+        if (data.getInt(data.position() + RECORD_BYTES - 4) != (int) crc.getValue()) return null;
+        UUID id = new UUID(data.getLong(), data.getLong());
+        UUID employeeId = new UUID(data.getLong(), data.getLong());
+        long micros = data.getLong();
+        AttendanceLog.AttendanceType type = AttendanceLog.AttendanceType.values()[data.get()];
+        boolean verified = data.get() == 1;
+        int score = data.getInt();
+        data.getInt(); // checksum
+        return new Object[]{
+                id,
+                employeeId,
+                OffsetDateTime.ofInstant(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), ZoneOffset.UTC),
+                type.name(),
+                score >= 0 ? BigDecimal.valueOf(score, 4) : null,
+                verified};
+    }
+}
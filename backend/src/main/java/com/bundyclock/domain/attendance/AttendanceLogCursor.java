@@ -0,0 +1,39 @@
+package com.bundyclock.domain.attendance;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last log of a page, in {@code (timestamp DESC, id DESC)}
+ * order. Serialised as an opaque URL-safe token.
+ */
+record AttendanceLogCursor(ZonedDateTime timestamp, UUID id) {
+
+    static AttendanceLogCursor after(AttendanceLog log) {
+        return new AttendanceLogCursor(log.getTimestamp(), log.getId());
+    }
+
+    String encode() {
+        String raw = ChronoUnit.MICROS.between(Instant.EPOCH, timestamp.toInstant()) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    static AttendanceLogCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            Instant instant = Instant.EPOCH.plus(Long.parseLong(raw.substring(0, separator)), ChronoUnit.MICROS);
+            return new AttendanceLogCursor(instant.atZone(ZoneOffset.UTC), UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.bundyclock.domain.attendance;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Optional filters for the attendance log listing; {@code null} fields are ignored.
+ * {@code from} is inclusive and {@code to} exclusive.
+ */
+public record AttendanceLogFilter(
+        UUID employeeId,
+        AttendanceLog.AttendanceType type,
+        Boolean verified,
+        ZonedDateTime from,
+        ZonedDateTime to) {
+
+    /** Builds the filter predicates, plus the keyset condition when {@code after} is given. */
+    Specification<AttendanceLog> toSpecification(AttendanceLogCursor after) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (employeeId != null) predicates.add(cb.equal(root.get("employeeId"), employeeId));
+            if (type != null) predicates.add(cb.equal(root.get("type"), type));
+            if (verified != null) predicates.add(cb.equal(root.get("verified"), verified));
+            if (from != null) predicates.add(cb.greaterThanOrEqualTo(root.<ZonedDateTime>get("timestamp"), from));
+            if (to != null) predicates.add(cb.lessThan(root.<ZonedDateTime>get("timestamp"), to));
+            if (after != null) {
+                predicates.add(cb.or(
+                        cb.lessThan(root.<ZonedDateTime>get("timestamp"), after.timestamp()),
+                        cb.and(
+                                cb.equal(root.<ZonedDateTime>get("timestamp"), after.timestamp()),
+                                cb.lessThan(root.<UUID>get("id"), after.id()))));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -1,16 +1,22 @@
 package com.bundyclock.domain.attendance;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * {@code attendance_logs} is partitioned by month on {@code timestamp}; queries
+ * that bound the timestamp read only the matching partitions.
+ * {@link #findByEmployeeIdOrderByTimestampDesc} is the exception: it returns an
+ * employee's whole history and reads every partition.
+ */
 @Repository
-public interface AttendanceLogRepository extends JpaRepository<AttendanceLog, UUID> {
-
-    List<AttendanceLog> findByEmployeeIdOrderByTimestampDesc(UUID employeeId);
+public interface AttendanceLogRepository extends JpaRepository<AttendanceLog, UUID>,
+        JpaSpecificationExecutor<AttendanceLog> {
 
     java.util.Optional<AttendanceLog> findTopByEmployeeIdAndTimestampAfterOrderByTimestampDesc(
         UUID employeeId, ZonedDateTime after);
@@ -18,6 +24,5 @@ public interface AttendanceLogRepository extends JpaRepository<AttendanceLog, UU
     List<AttendanceLog> findByTimestampBetweenOrderByTimestampDesc(
         ZonedDateTime from, ZonedDateTime to);
 
-    List<AttendanceLog> findByEmployeeIdAndTimestampBetweenOrderByTimestampDesc(
-        UUID employeeId, ZonedDateTime from, ZonedDateTime to);
+    List<AttendanceLog> findByEmployeeIdOrderByTimestampDesc(UUID employeeId);
 }
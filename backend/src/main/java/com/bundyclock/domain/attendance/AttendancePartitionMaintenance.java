@@ -0,0 +1,158 @@
+package com.bundyclock.domain.attendance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keeps the monthly partitions of {@code attendance_logs} (see migration V6)
+ * ahead of the clock and moves expired ones out of the table.
+ *
+ * <p>Runs at startup and daily: creates the partitions for the current UTC
+ * month and the next {@code premake-months}, then detaches every partition
+ * that ended more than {@code retention-months} ago and moves it to the
+ * archive schema, where it can be dumped or dropped. Detaching is a catalog
+ * change, so expiring a month costs nothing like deleting its rows.
+ *
+ * <p>When maintenance runs late, rows for a month without a partition have
+ * already landed in the default partition, and Postgres refuses to create the
+ * month's partition over them. In one transaction the default partition is
+ * then detached, the month's partition created, its rows moved over and the
+ * default reattached. A partition that still cannot be created fails startup
+ * rather than leaving the month unpruned in the default partition.
+ */
+@Slf4j
+@Component
+public class AttendancePartitionMaintenance {
+
+    private static final String PARENT = "attendance_logs";
+    private static final String PREFIX = PARENT + "_p";
+    private static final String DEFAULT_PARTITION = PARENT + "_default";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+            + "WHERE p.relname = ? AND p.relnamespace = to_regnamespace(current_schema())";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int premakeMonths;
+    private final int retentionMonths;
+    private final String archiveSchema;
+
+    public AttendancePartitionMaintenance(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.attendance.partitioning.enabled:false}") boolean enabled,
+            @Value("${app.attendance.partitioning.premake-months:3}") int premakeMonths,
+            @Value("${app.attendance.partitioning.retention-months:24}") int retentionMonths,
+            @Value("${app.attendance.partitioning.archive-schema:attendance_archive}") String archiveSchema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.premakeMonths = premakeMonths;
+        this.retentionMonths = retentionMonths;
+        this.archiveSchema = archiveSchema;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${app.attendance.partitioning.cron:0 30 0 * * *}")
+    public void maintain() {
+        if (!enabled) return;
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int ahead = 0; ahead <= premakeMonths; ahead++) {
+            createPartition(current.plusMonths(ahead));
+        }
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = current.minusMonths(retentionMonths);
+            for (String partition : jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, PARENT)) {
+                YearMonth month = monthOf(partition);
+                if (month != null && month.isBefore(oldestKept)) archive(partition);
+            }
+        }
+    }
+
+    /**
+     * Creates the partition for {@code month}, moving any of its rows out of
+     * the default partition first.
+     *
+     * @throws IllegalStateException when the partition cannot be created
+     */
+    void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL",
+                Boolean.class, partition))) {
+            return;
+        }
+        OffsetDateTime from = month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime to = from.plusMonths(1);
+        String create = "CREATE TABLE " + partition + " PARTITION OF " + PARENT
+                + " FOR VALUES FROM ('" + startOf(month) + "') TO ('" + startOf(month.plusMonths(1)) + "')";
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean stranded = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION
+                        + " WHERE timestamp >= ? AND timestamp < ?)", Boolean.class, from, to);
+                if (!Boolean.TRUE.equals(stranded)) {
+                    jdbcTemplate.execute(create);
+                    return;
+                }
+                jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + DEFAULT_PARTITION);
+                jdbcTemplate.execute(create);
+                int moved = jdbcTemplate.update("INSERT INTO " + partition + " SELECT * FROM " + DEFAULT_PARTITION
+                        + " WHERE timestamp >= ? AND timestamp < ?", from, to);
+                jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION
+                        + " WHERE timestamp >= ? AND timestamp < ?", from, to);
+                jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+                log.warn("Moved {} attendance logs for {} out of the default partition into {}", moved, month,
+                        partition);
+            });
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Could not create attendance partition " + partition, e);
+        }
+    }
+
+    private void archive(String partition) {
+        try {
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + archiveSchema);
+            log.info("Archived attendance partition {} to schema {}", partition, archiveSchema);
+        } catch (DataAccessException e) {
+            log.error("Could not archive attendance partition {}: {}", partition, e.getMessage());
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return PREFIX + month.format(SUFFIX);
+    }
+
+    /** Month a partition holds, or {@code null} for the default partition and any other table. */
+    static YearMonth monthOf(String partition) {
+        if (!partition.startsWith(PREFIX)) return null;
+        try {
+            return YearMonth.parse(partition.substring(PREFIX.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String startOf(YearMonth month) {
+        return month.atDay(1) + " 00:00:00+00";
+    }
+}
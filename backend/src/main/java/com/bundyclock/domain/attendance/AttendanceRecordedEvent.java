@@ -0,0 +1,5 @@
+package com.bundyclock.domain.attendance;
+
+/** Published when a punch is recorded; listeners see it after the insert commits. */
+public record AttendanceRecordedEvent(AttendanceLog log) {
+}
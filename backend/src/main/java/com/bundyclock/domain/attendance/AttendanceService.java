@@ -1,7 +1,13 @@
 package com.bundyclock.domain.attendance;
 
+import com.bundyclock.common.dto.CursorPage;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,7 +17,23 @@ public interface AttendanceService {
 
     AttendanceLog timeOut(UUID employeeId, MultipartFile image);
 
+    /** Verifies the face and records TIME_IN or TIME_OUT for the matched employee. */
+    PunchResult punch(MultipartFile image);
+
     List<AttendanceLog> getLogsByEmployee(UUID employeeId);
 
-    List<AttendanceLog> getAllLogs();
+    /** Returns up to {@code limit} logs after {@code cursor}, newest first. */
+    CursorPage<AttendanceLog> searchLogs(AttendanceLogFilter filter, String cursor, int limit);
+
+    /** Streams every log matching {@code filter} to {@code out}, oldest first; returns the row count. */
+    long exportLogs(AttendanceLogFilter filter, AttendanceExporter.Format format, OutputStream out) throws IOException;
+
+    /** Returns the employee's daily summaries from {@code from} to {@code to}, both inclusive. */
+    List<DailyAttendanceSummary> getTimesheet(UUID employeeId, LocalDate from, LocalDate to);
+
+    /** Returns per-employee totals for a department over one month. */
+    List<TimesheetReportRow> getDepartmentReport(String department, YearMonth month);
+
+    /** Subscribes to punches as they are recorded, optionally for one employee or department. */
+    SseEmitter streamLogs(UUID employeeId, String department);
 }
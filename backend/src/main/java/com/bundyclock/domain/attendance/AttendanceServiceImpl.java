@@ -1,17 +1,33 @@
 package com.bundyclock.domain.attendance;
 
+import com.bundyclock.common.dto.CursorPage;
+import com.bundyclock.domain.face.FaceService;
+import com.bundyclock.domain.face.FaceVerifyResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZonedDateTime;
-import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Slf4j
 @Service
@@ -19,58 +35,184 @@ import java.util.UUID;
 @Transactional(readOnly = true)
 public class AttendanceServiceImpl implements AttendanceService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_TIMESHEET_DAYS = 366;
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("id"));
+
     private final AttendanceLogRepository attendanceLogRepository;
+    private final FaceService faceService;
+    private final PunchStateCache punchStateCache;
+    private final AttendanceJournal attendanceJournal;
+    private final AttendanceExporter attendanceExporter;
+    private final TimesheetEngine timesheetEngine;
+    private final DailyAttendanceSummaryRepository summaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AttendanceFeed attendanceFeed;
+    private final AttendanceImageRecorder attendanceImageRecorder;
+    private final Clock clock;
+
+    /** A second scan within this window is treated as a duplicate, not a punch in the other direction. */
+    @Value("${app.attendance.min-punch-interval:60s}")
+    private Duration minPunchInterval;
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AttendanceLog timeIn(UUID employeeId, MultipartFile image) {
-        ZonedDateTime startOfDay = LocalDate.now(ZoneId.systemDefault())
-            .atStartOfDay(ZoneId.systemDefault());
-        Optional<AttendanceLog> last = attendanceLogRepository
-            .findTopByEmployeeIdAndTimestampAfterOrderByTimestampDesc(employeeId, startOfDay);
-        if (last.isPresent() && last.get().getType() == AttendanceLog.AttendanceType.TIME_IN) {
-            throw new IllegalStateException("Already timed in today. Please time out first.");
-        }
-        log.info("TIME_IN for employee: {}", employeeId);
-        AttendanceLog entry = AttendanceLog.builder()
-            .employeeId(employeeId)
-            .timestamp(ZonedDateTime.now())
-            .type(AttendanceLog.AttendanceType.TIME_IN)
-            .verified(true)
-            .build();
-        return attendanceLogRepository.save(entry);
+        AttendanceLog entry = record(employeeId, null, last -> {
+            if (last.isPresent() && last.get().type() == AttendanceLog.AttendanceType.TIME_IN) {
+                throw new IllegalStateException("Already timed in today. Please time out first.");
+            }
+            log.info("TIME_IN for employee: {}", employeeId);
+            return AttendanceLog.AttendanceType.TIME_IN;
+        });
+        attendanceImageRecorder.record(entry, image);
+        return entry;
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AttendanceLog timeOut(UUID employeeId, MultipartFile image) {
-        ZonedDateTime startOfDay = LocalDate.now(ZoneId.systemDefault())
-            .atStartOfDay(ZoneId.systemDefault());
-        Optional<AttendanceLog> last = attendanceLogRepository
-            .findTopByEmployeeIdAndTimestampAfterOrderByTimestampDesc(employeeId, startOfDay);
-        if (last.isEmpty()) {
-            throw new IllegalStateException("Cannot time out — no time-in record found for today.");
-        }
-        if (last.get().getType() == AttendanceLog.AttendanceType.TIME_OUT) {
-            throw new IllegalStateException("Already timed out today.");
+        AttendanceLog entry = record(employeeId, null, last -> {
+            if (last.isEmpty()) {
+                throw new IllegalStateException("Cannot time out — no open time-in record found.");
+            }
+            if (last.get().type() == AttendanceLog.AttendanceType.TIME_OUT) {
+                throw new IllegalStateException("Already timed out today.");
+            }
+            log.info("TIME_OUT for employee: {}", employeeId);
+            return AttendanceLog.AttendanceType.TIME_OUT;
+        });
+        attendanceImageRecorder.record(entry, image);
+        return entry;
+    }
+
+    /**
+     * Verifies the image, then records TIME_OUT if the employee's last log today
+     * is a TIME_IN, or a night shift's TIME_IN is still open from yesterday (see
+     * {@link PunchStateCache}), and TIME_IN otherwise. The face-service call runs outside the
+     * transaction so no database connection is held while it is in flight.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PunchResult punch(MultipartFile image) {
+        FaceVerifyResult verified = faceService.verify(image);
+        if (!verified.isMatched()) {
+            return PunchResult.builder()
+                    .matched(false)
+                    .confidenceScore(verified.getConfidenceScore())
+                    .message(verified.getMessage())
+                    .build();
         }
-        log.info("TIME_OUT for employee: {}", employeeId);
-        AttendanceLog entry = AttendanceLog.builder()
-            .employeeId(employeeId)
-            .timestamp(ZonedDateTime.now())
-            .type(AttendanceLog.AttendanceType.TIME_OUT)
-            .verified(true)
-            .build();
-        return attendanceLogRepository.save(entry);
+
+        UUID employeeId = verified.getEmployeeId();
+        AttendanceLog entry = record(employeeId, verified.getConfidenceScore(), last -> {
+            if (last.isPresent() && last.get().timestamp().isAfter(ZonedDateTime.now(clock).minus(minPunchInterval))) {
+                throw new IllegalStateException("Already recorded " + last.get().type() + " at "
+                        + last.get().timestamp().withZoneSameInstant(clock.getZone())
+                                .toLocalTime().withNano(0) + ".");
+            }
+            AttendanceLog.AttendanceType type =
+                    last.isPresent() && last.get().type() == AttendanceLog.AttendanceType.TIME_IN
+                            ? AttendanceLog.AttendanceType.TIME_OUT
+                            : AttendanceLog.AttendanceType.TIME_IN;
+            log.info("{} for employee: {} (score={})", type, employeeId, verified.getConfidenceScore());
+            return type;
+        });
+        attendanceImageRecorder.record(entry, image);
+
+        return PunchResult.builder()
+                .matched(true)
+                .employeeId(employeeId)
+                .employeeName(verified.getEmployeeName())
+                .department(verified.getDepartment())
+                .confidenceScore(verified.getConfidenceScore())
+                .type(entry.getType())
+                .log(entry)
+                .message(entry.getType() == AttendanceLog.AttendanceType.TIME_IN
+                        ? "Time-In recorded" : "Time-Out recorded")
+                .build();
     }
 
+    /** Every log of the employee; {@link #searchLogs} pages through a bounded range instead. */
     @Override
     public List<AttendanceLog> getLogsByEmployee(UUID employeeId) {
         return attendanceLogRepository.findByEmployeeIdOrderByTimestampDesc(employeeId);
     }
 
     @Override
-    public List<AttendanceLog> getAllLogs() {
-        return attendanceLogRepository.findAll();
+    public CursorPage<AttendanceLog> searchLogs(AttendanceLogFilter filter, String cursor, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be at least 1");
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        AttendanceLogCursor after = cursor == null || cursor.isBlank() ? null : AttendanceLogCursor.decode(cursor);
+
+        // One extra row tells us whether another page exists without a count query.
+        List<AttendanceLog> rows = attendanceLogRepository.findBy(filter.toSpecification(after),
+                query -> query.sortBy(KEYSET_ORDER).limit(pageSize + 1).all());
+        boolean hasMore = rows.size() > pageSize;
+        List<AttendanceLog> items = hasMore ? rows.subList(0, pageSize) : rows;
+        return CursorPage.<AttendanceLog>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? AttendanceLogCursor.after(items.get(items.size() - 1)).encode() : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long exportLogs(AttendanceLogFilter filter, AttendanceExporter.Format format, OutputStream out)
+            throws IOException {
+        return attendanceExporter.export(filter, format, out);
+    }
+
+    @Override
+    public List<DailyAttendanceSummary> getTimesheet(UUID employeeId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) throw new IllegalArgumentException("to must not be before from");
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_TIMESHEET_DAYS) {
+            throw new IllegalArgumentException("Timesheet range must not exceed " + MAX_TIMESHEET_DAYS + " days");
+        }
+        return summaryRepository.findByEmployeeIdAndWorkDateBetweenOrderByWorkDate(employeeId, from, to);
+    }
+
+    @Override
+    public List<TimesheetReportRow> getDepartmentReport(String department, YearMonth month) {
+        return summaryRepository.reportByDepartment(department, month.atDay(1), month.atEndOfMonth());
+    }
+
+    @Override
+    public SseEmitter streamLogs(UUID employeeId, String department) {
+        return attendanceFeed.subscribe(employeeId, department == null || department.isBlank() ? null : department);
+    }
+
+    /**
+     * Decides the punch type from the employee's cached state and inserts the log
+     * together with its timesheet update, holding the employee's lock until both
+     * have committed (or, in write-behind mode, the log has reached the journal)
+     * so concurrent punches for the same employee see each other. The live feed
+     * is notified once the log is durable.
+     */
+    private AttendanceLog record(UUID employeeId, BigDecimal confidenceScore,
+                                 Function<Optional<PunchStateCache.PunchState>, AttendanceLog.AttendanceType> decide) {
+        return punchStateCache.locked(employeeId, () -> {
+            AttendanceLog.AttendanceType type = decide.apply(punchStateCache.get(employeeId));
+            AttendanceLog entry = AttendanceLog.builder()
+                .employeeId(employeeId)
+                .timestamp(ZonedDateTime.now(clock))
+                .type(type)
+                .confidenceScore(confidenceScore)
+                .verified(true)
+                .build();
+            AttendanceLog saved = attendanceJournal.isEnabled()
+                ? attendanceJournal.append(entry)
+                : transactionTemplate.execute(status -> {
+                    AttendanceLog inserted = attendanceLogRepository.save(entry);
+                    timesheetEngine.apply(inserted);
+                    eventPublisher.publishEvent(new AttendanceRecordedEvent(inserted));
+                    return inserted;
+                });
+            if (attendanceJournal.isEnabled()) eventPublisher.publishEvent(new AttendanceRecordedEvent(saved));
+            punchStateCache.update(saved);
+            return saved;
+        });
     }
 }
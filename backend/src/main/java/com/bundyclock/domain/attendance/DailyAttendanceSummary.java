@@ -0,0 +1,140 @@
+package com.bundyclock.domain.attendance;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * One employee's timesheet for one day, kept up to date as punches arrive.
+ *
+ * <p>Punches are paired into sessions: a TIME_IN opens a session and the next
+ * TIME_OUT closes it, adding its length to the worked minutes, even when that
+ * TIME_OUT falls on the next day. A TIME_OUT with no open session is ignored.
+ * A punch no later than {@code lastPunchAt} has already been applied and is
+ * skipped, so replaying logs is harmless.
+ */
+@Entity
+@Table(name = "daily_attendance_summary")
+@IdClass(DailyAttendanceSummary.Key.class)
+@Getter
+@NoArgsConstructor
+public class DailyAttendanceSummary implements Persistable<DailyAttendanceSummary.Key> {
+
+    @Id
+    @Column(name = "employee_id")
+    private UUID employeeId;
+
+    @Id
+    @Column(name = "work_date")
+    private LocalDate workDate;
+
+    @Column(name = "first_in")
+    private ZonedDateTime firstIn;
+
+    @Column(name = "last_out")
+    private ZonedDateTime lastOut;
+
+    /** TIME_IN of the session still open, if any. */
+    @Column(name = "open_since")
+    private ZonedDateTime openSince;
+
+    @JsonIgnore
+    @Column(name = "last_punch_at", nullable = false)
+    private ZonedDateTime lastPunchAt;
+
+    @Column(nullable = false)
+    private int sessions;
+
+    @Column(name = "worked_minutes", nullable = false)
+    private int workedMinutes;
+
+    @Column(name = "overtime_minutes", nullable = false)
+    private int overtimeMinutes;
+
+    @Column(name = "late_minutes", nullable = false)
+    private int lateMinutes;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private ZonedDateTime updatedAt;
+
+    @Transient
+    @JsonIgnore
+    private boolean isNew = true;
+
+    DailyAttendanceSummary(UUID employeeId, LocalDate workDate) {
+        this.employeeId = employeeId;
+        this.workDate = workDate;
+    }
+
+    /**
+     * Applies a punch made on this summary's work date, or the TIME_OUT of a
+     * session opened on it that ran past midnight.
+     *
+     * @return whether the summary changed
+     */
+    boolean apply(AttendanceLog.AttendanceType type, ZonedDateTime timestamp, WorkSchedule schedule) {
+        if (lastPunchAt != null && !timestamp.isAfter(lastPunchAt)) return false;
+        lastPunchAt = timestamp;
+        if (type == AttendanceLog.AttendanceType.TIME_IN) {
+            if (firstIn == null) {
+                firstIn = timestamp;
+                lateMinutes = schedule.lateMinutes(timestamp);
+            }
+            // A second TIME_IN without a TIME_OUT restarts the open session.
+            openSince = timestamp;
+        } else if (openSince != null) {
+            workedMinutes += (int) Duration.between(openSince, timestamp).toMinutes();
+            overtimeMinutes = schedule.overtimeMinutes(workedMinutes);
+            sessions++;
+            lastOut = timestamp;
+            openSince = null;
+        }
+        return true;
+    }
+
+    @Override
+    @JsonIgnore
+    public Key getId() {
+        return new Key(employeeId, workDate);
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID employeeId;
+        private LocalDate workDate;
+    }
+}
@@ -0,0 +1,29 @@
+package com.bundyclock.domain.attendance;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DailyAttendanceSummaryRepository
+        extends JpaRepository<DailyAttendanceSummary, DailyAttendanceSummary.Key> {
+
+    List<DailyAttendanceSummary> findByEmployeeIdAndWorkDateBetweenOrderByWorkDate(
+        UUID employeeId, LocalDate from, LocalDate to);
+
+    @Query("""
+            SELECT new com.bundyclock.domain.attendance.TimesheetReportRow(
+                s.employeeId, e.employeeCode, e.name, COUNT(s.workDate), SUM(s.workedMinutes), SUM(s.overtimeMinutes),
+                SUM(s.lateMinutes), SUM(CASE WHEN s.lateMinutes > 0 THEN 1 ELSE 0 END))
+            FROM DailyAttendanceSummary s JOIN Employee e ON e.id = s.employeeId
+            WHERE e.department = :department AND s.workDate BETWEEN :from AND :to
+            GROUP BY s.employeeId, e.employeeCode, e.name
+            ORDER BY e.name""")
+    List<TimesheetReportRow> reportByDepartment(
+        @Param("department") String department, @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
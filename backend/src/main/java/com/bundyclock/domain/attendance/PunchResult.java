@@ -0,0 +1,26 @@
+package com.bundyclock.domain.attendance;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/** Outcome of a kiosk scan: the face match and, when matched, the recorded log. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PunchResult {
+
+    private boolean matched;
+    private UUID employeeId;
+    private String employeeName;
+    private String department;
+    private BigDecimal confidenceScore;
+    private AttendanceLog.AttendanceType type;
+    private AttendanceLog log;
+    private String message;
+}
@@ -0,0 +1,144 @@
+package com.bundyclock.domain.attendance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Each employee's last punch of the current business day, so the time-in /
+ * time-out guard is a memory lookup instead of a query per punch.
+ *
+ * <p>A TIME_IN from before midnight still counts while it is no older than
+ * {@code app.attendance.max-shift}: the session is open, so a night shift's
+ * morning scan is its TIME_OUT rather than a new TIME_IN. Any other entry from
+ * a previous day is ignored on read and evicted at midnight.
+ *
+ * <p>The cache is warmed from the logs of today and of the last
+ * {@code max-shift} once the application is ready, and updated by every write
+ * that goes through {@link AttendanceServiceImpl}; after warming, a missing
+ * entry means "no current punch". Until then lookups fall back to the
+ * database.
+ *
+ * <p>Check-then-insert for one employee runs under {@link #locked}, which uses
+ * striped {@link ReentrantLock}s rather than {@code synchronized} so waiting
+ * virtual threads do not pin their carrier.
+ */
+@Slf4j
+@Component
+public class PunchStateCache {
+
+    private static final int STRIPES = 64;
+
+    private final AttendanceLogRepository attendanceLogRepository;
+    private final Clock clock;
+    private final ZoneId zone;
+    private final Duration maxShift;
+    private final ConcurrentMap<UUID, PunchState> states = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private volatile boolean warmed;
+
+    public PunchStateCache(AttendanceLogRepository attendanceLogRepository, Clock clock,
+                           @Value("${app.attendance.max-shift:16h}") Duration maxShift) {
+        // The timesheet closes a session against the day before at most, so a shift cannot outlast a day.
+        if (maxShift.compareTo(Duration.ofDays(1)) > 0) {
+            throw new IllegalArgumentException("app.attendance.max-shift must not exceed 24h");
+        }
+        this.attendanceLogRepository = attendanceLogRepository;
+        this.clock = clock;
+        this.zone = clock.getZone();
+        this.maxShift = maxShift;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /** Last punch of an employee today, or the TIME_IN of a session still open from yesterday. */
+    public record PunchState(AttendanceLog.AttendanceType type, ZonedDateTime timestamp) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        int count = 0;
+        for (AttendanceLog entry : attendanceLogRepository.findByTimestampBetweenOrderByTimestampDesc(
+                since(now), now)) {
+            merge(entry.getEmployeeId(), new PunchState(entry.getType(), entry.getTimestamp()));
+            count++;
+        }
+        warmed = true;
+        evictPreviousDays();
+        log.info("Punch state cache warmed — {} employees from {} recent logs", states.size(), count);
+    }
+
+    /** Runs {@code action} while holding the employee's lock. */
+    public <T> T locked(UUID employeeId, Supplier<T> action) {
+        ReentrantLock lock = locks[Math.floorMod(employeeId.hashCode(), STRIPES)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Returns the employee's last punch today, or the TIME_IN of a session still open, if any. */
+    public Optional<PunchState> get(UUID employeeId) {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        PunchState state = states.get(employeeId);
+        if (state == null && !warmed) {
+            state = attendanceLogRepository
+                    .findTopByEmployeeIdAndTimestampAfterOrderByTimestampDesc(employeeId, since(now))
+                    .map(entry -> new PunchState(entry.getType(), entry.getTimestamp()))
+                    .orElse(null);
+        }
+        return state != null && isCurrent(state, now) ? Optional.of(state) : Optional.empty();
+    }
+
+    /** Records a committed log as the employee's latest punch. */
+    public void update(AttendanceLog entry) {
+        merge(entry.getEmployeeId(), new PunchState(entry.getType(), entry.getTimestamp()));
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public void evictPreviousDays() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        states.values().removeIf(state -> !isCurrent(state, now));
+    }
+
+    int size() {
+        return states.size();
+    }
+
+    /** A punch made today, or a TIME_IN recent enough that its session may still be open. */
+    private boolean isCurrent(PunchState state, ZonedDateTime now) {
+        ZonedDateTime timestamp = state.timestamp().withZoneSameInstant(zone);
+        if (timestamp.toLocalDate().equals(now.toLocalDate())) return true;
+        return state.type() == AttendanceLog.AttendanceType.TIME_IN && !timestamp.isBefore(now.minus(maxShift));
+    }
+
+    /** Earliest punch that can still be current. */
+    private ZonedDateTime since(ZonedDateTime now) {
+        ZonedDateTime startOfDay = now.toLocalDate().atStartOfDay(zone);
+        ZonedDateTime shiftStart = now.minus(maxShift);
+        return shiftStart.isBefore(startOfDay) ? shiftStart : startOfDay;
+    }
+
+    private void merge(UUID employeeId, PunchState state) {
+        states.merge(employeeId, state,
+                (current, candidate) -> candidate.timestamp().isAfter(current.timestamp()) ? candidate : current);
+    }
+}
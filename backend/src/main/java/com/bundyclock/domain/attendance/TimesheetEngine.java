@@ -0,0 +1,169 @@
+package com.bundyclock.domain.attendance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Maintains {@code daily_attendance_summary} from punches as they are
+ * recorded, so timesheets and monthly reports read one row per employee-day
+ * instead of pairing raw logs.
+ *
+ * <p>{@link #apply} must run inside the transaction that writes the log and,
+ * for a given employee, in punch order — {@link AttendanceServiceImpl} holds
+ * the employee's lock and the write-behind flush inserts segments in order.
+ * An empty summary table is rebuilt from the existing logs at startup, before
+ * the write-behind journal is replayed.
+ *
+ * <p>A TIME_OUT closes the session open on its own day or, failing that, one
+ * left open on the day before, so a shift that runs past midnight is credited
+ * to the day it started.
+ */
+@Slf4j
+@Component
+public class TimesheetEngine {
+
+    private static final int BACKFILL_BATCH = 1_000;
+
+    private final DailyAttendanceSummaryRepository summaryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkSchedule schedule;
+    private final boolean backfillOnStartup;
+
+    public TimesheetEngine(
+            DailyAttendanceSummaryRepository summaryRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.attendance.timesheet.shift-start:09:00}") String shiftStart,
+            @Value("${app.attendance.timesheet.late-grace:5m}") Duration lateGrace,
+            @Value("${app.attendance.timesheet.standard-day:8h}") Duration standardDay,
+            @Value("${app.attendance.timesheet.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.summaryRepository = summaryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.schedule = new WorkSchedule(LocalTime.parse(shiftStart), lateGrace, standardDay, ZoneId.systemDefault());
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    /** Folds a punch into the summary of its day, or of the day its session started. */
+    public void apply(UUID employeeId, AttendanceLog.AttendanceType type, ZonedDateTime timestamp) {
+        LocalDate workDate = schedule.workDate(timestamp);
+        DailyAttendanceSummary summary = summaryFor(type, workDate,
+                date -> summaryRepository.findById(new DailyAttendanceSummary.Key(employeeId, date)).orElse(null));
+        if (summary == null) {
+            // Nothing to close: a TIME_OUT needs an open session.
+            if (type == AttendanceLog.AttendanceType.TIME_OUT) return;
+            summary = new DailyAttendanceSummary(employeeId, workDate);
+        }
+        if (summary.apply(type, timestamp, schedule)) {
+            summaryRepository.save(summary);
+        }
+    }
+
+    public void apply(AttendanceLog entry) {
+        apply(entry.getEmployeeId(), entry.getType(), entry.getTimestamp());
+    }
+
+    /**
+     * Rebuilds the summaries from {@code attendance_logs} when the table is
+     * empty but logs exist — on the first start after the table was added.
+     * Logs are read one employee at a time, in punch order, and each
+     * employee's days are saved together.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfill() {
+        if (!backfillOnStartup || summaryRepository.count() > 0) return;
+        long start = System.nanoTime();
+        Map<LocalDate, DailyAttendanceSummary> days = new LinkedHashMap<>();
+        UUID[] current = {null};
+        int[] saved = {0};
+
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(
+                    "SELECT employee_id, type, timestamp FROM attendance_logs ORDER BY employee_id, timestamp");
+            statement.setFetchSize(BACKFILL_BATCH);
+            return statement;
+        }, (RowCallbackHandler) row -> {
+            UUID employeeId = row.getObject(1, UUID.class);
+            AttendanceLog.AttendanceType type = AttendanceLog.AttendanceType.valueOf(row.getString(2));
+            ZonedDateTime timestamp = row.getObject(3, OffsetDateTime.class).toZonedDateTime();
+            LocalDate workDate = schedule.workDate(timestamp);
+            // Days arrive in order, so a full batch can be saved once the next day starts.
+            if (!employeeId.equals(current[0]) || (days.size() >= BACKFILL_BATCH && !days.containsKey(workDate))) {
+                saved[0] += saveAll(days);
+                current[0] = employeeId;
+            }
+            DailyAttendanceSummary summary = summaryFor(type, workDate, date -> {
+                DailyAttendanceSummary day = days.get(date);
+                if (day == null && date.isBefore(workDate)) {
+                    // The previous day may already have gone out with an earlier batch.
+                    day = summaryRepository.findById(new DailyAttendanceSummary.Key(employeeId, date)).orElse(null);
+                    if (day != null) days.put(date, day);
+                }
+                return day;
+            });
+            if (summary == null) {
+                if (type == AttendanceLog.AttendanceType.TIME_OUT) return;
+                summary = new DailyAttendanceSummary(employeeId, workDate);
+                days.put(workDate, summary);
+            }
+            summary.apply(type, timestamp, schedule);
+        });
+        saved[0] += saveAll(days);
+
+        if (saved[0] > 0) {
+            log.info("Daily attendance summaries backfilled — {} employee-days in {} ms",
+                    saved[0], (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * The summary a punch on {@code workDate} applies to: that day's, unless
+     * it is a TIME_OUT with no session open that day and the previous day
+     * still has one, in which case it closes that overnight session.
+     */
+    private static DailyAttendanceSummary summaryFor(AttendanceLog.AttendanceType type, LocalDate workDate,
+                                                     Function<LocalDate, DailyAttendanceSummary> lookup) {
+        DailyAttendanceSummary summary = lookup.apply(workDate);
+        if (type == AttendanceLog.AttendanceType.TIME_OUT && (summary == null || summary.getOpenSince() == null)) {
+            DailyAttendanceSummary previous = lookup.apply(workDate.minusDays(1));
+            if (previous != null && previous.getOpenSince() != null) return previous;
+        }
+        return summary;
+    }
+
+    private int saveAll(Map<LocalDate, DailyAttendanceSummary> days) {
+        int count = days.size();
+        if (count == 0) return 0;
+        try {
+            transactionTemplate.executeWithoutResult(status -> summaryRepository.saveAll(days.values()));
+        } catch (DataAccessException e) {
+            // A live punch got to one of these days first; it is rebuilt from its own punches.
+            log.warn("Skipping {} backfilled summaries: {}", count, e.getMessage());
+            count = 0;
+        }
+        days.clear();
+        return count;
+    }
+}
@@ -0,0 +1,20 @@
+package com.bundyclock.domain.attendance;
+
+import java.util.UUID;
+
+/**
+ * One employee's totals over a reporting period.
+ *
+ * @param daysPresent days with at least one TIME_IN
+ * @param lateDays    days whose first TIME_IN was late
+ */
+public record TimesheetReportRow(
+        UUID employeeId,
+        String employeeCode,
+        String name,
+        Long daysPresent,
+        Long workedMinutes,
+        Long overtimeMinutes,
+        Long lateMinutes,
+        Long lateDays) {
+}
@@ -0,0 +1,33 @@
+package com.bundyclock.domain.attendance;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * The working day that timesheet figures are measured against.
+ *
+ * @param shiftStart  local time a TIME_IN is expected by
+ * @param lateGrace   a first TIME_IN this close to the shift start is not late
+ * @param standardDay minutes worked beyond this count as overtime
+ * @param zone        zone whose calendar days the summaries are kept for
+ */
+record WorkSchedule(LocalTime shiftStart, Duration lateGrace, Duration standardDay, ZoneId zone) {
+
+    LocalDate workDate(ZonedDateTime timestamp) {
+        return timestamp.withZoneSameInstant(zone).toLocalDate();
+    }
+
+    /** Minutes after the shift start, or 0 when within the grace period. */
+    int lateMinutes(ZonedDateTime firstIn) {
+        ZonedDateTime local = firstIn.withZoneSameInstant(zone);
+        Duration late = Duration.between(local.toLocalDate().atTime(shiftStart).atZone(zone), local);
+        return late.compareTo(lateGrace) > 0 ? (int) late.toMinutes() : 0;
+    }
+
+    int overtimeMinutes(int workedMinutes) {
+        return Math.max(0, workedMinutes - (int) standardDay.toMinutes());
+    }
+}
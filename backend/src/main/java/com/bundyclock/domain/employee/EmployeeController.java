@@ -1,14 +1,16 @@
 package com.bundyclock.domain.employee;
 
 import com.bundyclock.common.dto.ApiResponse;
+import com.bundyclock.common.dto.PageResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -18,12 +20,19 @@ import java.util.UUID;
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final EmployeeImportService employeeImportService;
 
     @GetMapping
-    @Operation(summary = "Get all employees")
-    public ResponseEntity<ApiResponse<List<Employee>>> getAllEmployees() {
-        List<Employee> employees = employeeService.getAllEmployees();
-        return ResponseEntity.ok(ApiResponse.ok(employees));
+    @Operation(summary = "Search employees by name or code prefix and department, paginated and sorted")
+    public ResponseEntity<ApiResponse<PageResponse<EmployeeSummary>>> searchEmployees(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String department,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+        return ResponseEntity.ok(ApiResponse.ok(
+                employeeService.searchEmployees(q, department, page, size, sort, direction)));
     }
 
     @GetMapping("/{id}")
@@ -33,6 +42,13 @@ public class EmployeeController {
         return ResponseEntity.ok(ApiResponse.ok(employee));
     }
 
+    @GetMapping("/code/{employeeCode}")
+    @Operation(summary = "Get employee by employee code")
+    public ResponseEntity<ApiResponse<Employee>> getEmployeeByCode(@PathVariable String employeeCode) {
+        Employee employee = employeeService.getEmployeeByCode(employeeCode);
+        return ResponseEntity.ok(ApiResponse.ok(employee));
+    }
+
     @PostMapping
     @Operation(summary = "Create a new employee")
     public ResponseEntity<ApiResponse<Employee>> createEmployee(@RequestBody Employee employee) {
@@ -55,4 +71,19 @@ public class EmployeeController {
         employeeService.deleteEmployee(id);
         return ResponseEntity.ok(ApiResponse.ok("Employee deleted", null));
     }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import employees from a CSV, enrolling faces from an optional zip of photos")
+    public ResponseEntity<ApiResponse<EmployeeImportStatus>> importEmployees(
+            @RequestPart("file") MultipartFile file,
+            @RequestPart(value = "photos", required = false) MultipartFile photos) {
+        EmployeeImportStatus status = employeeImportService.startImport(file, photos);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.ok("Import started", status));
+    }
+
+    @GetMapping("/import/{jobId}")
+    @Operation(summary = "Get the progress and per-row errors of an employee import")
+    public ResponseEntity<ApiResponse<EmployeeImportStatus>> getImport(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(ApiResponse.ok(employeeImportService.getImport(jobId)));
+    }
 }
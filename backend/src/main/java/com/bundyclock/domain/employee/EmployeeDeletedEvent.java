@@ -0,0 +1,7 @@
+package com.bundyclock.domain.employee;
+
+import java.util.UUID;
+
+/** Published inside the transaction that deletes an employee. */
+public record EmployeeDeletedEvent(UUID employeeId) {
+}
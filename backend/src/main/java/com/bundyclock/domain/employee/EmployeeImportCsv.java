@@ -0,0 +1,116 @@
+package com.bundyclock.domain.employee;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the bulk-import CSV: a header row naming the columns (any order,
+ * case-insensitive) — {@code name}, {@code employeeCode} and optionally
+ * {@code department}, {@code email}, {@code photo} — then one employee per
+ * row. Fields may be quoted, with {@code ""} for a literal quote.
+ */
+final class EmployeeImportCsv {
+
+    private static final String NAME = "name";
+    private static final String CODE = "employeecode";
+    private static final String DEPARTMENT = "department";
+    private static final String EMAIL = "email";
+    private static final String PHOTO = "photo";
+
+    /** One data row; {@code line} is the 1-based line it starts on, counting the header. */
+    record Row(int line, String name, String employeeCode, String department, String email, String photo) {
+    }
+
+    private EmployeeImportCsv() {
+    }
+
+    /**
+     * @throws IllegalArgumentException when the header lacks a required column
+     */
+    static List<Row> read(Reader reader) throws IOException {
+        List<Record> records = parse(reader.markSupported() ? reader : new BufferedReader(reader));
+        if (records.isEmpty()) throw new IllegalArgumentException("The CSV file is empty");
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = records.get(0).fields();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey(NAME) || !columns.containsKey(CODE)) {
+            throw new IllegalArgumentException("The CSV header must include name and employeeCode columns");
+        }
+
+        List<Row> rows = new ArrayList<>(records.size() - 1);
+        for (Record record : records.subList(1, records.size())) {
+            List<String> fields = record.fields();
+            if (fields.size() == 1 && fields.get(0).isBlank()) continue;
+            rows.add(new Row(record.line(),
+                    field(fields, columns, NAME),
+                    field(fields, columns, CODE),
+                    field(fields, columns, DEPARTMENT),
+                    field(fields, columns, EMAIL),
+                    field(fields, columns, PHOTO)));
+        }
+        return rows;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) return null;
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private record Record(int line, List<String> fields) {
+    }
+
+    private static List<Record> parse(Reader reader) throws IOException {
+        List<Record> records = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int line = 1;
+        int recordLine = 1;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '\n') line++;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                field.setLength(0);
+                records.add(new Record(recordLine, fields));
+                fields = new ArrayList<>();
+                recordLine = line;
+            } else if (c != '\r' && !(c == '\uFEFF' && records.isEmpty() && fields.isEmpty() && field.isEmpty())) {
+                field.append((char) c);
+            }
+        }
+        if (!field.isEmpty() || !fields.isEmpty()) {
+            fields.add(field.toString());
+            records.add(new Record(recordLine, fields));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,20 @@
+package com.bundyclock.domain.employee;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.UUID;
+
+public interface EmployeeImportService {
+
+    /**
+     * Reads {@code csv} and starts importing it in the background: rows are
+     * validated in one pass, inserted in batches, and each new employee with a
+     * photo in the optional {@code photos} zip is enrolled with the
+     * face-recognition service.
+     *
+     * @throws IllegalArgumentException when the CSV or zip cannot be read
+     */
+    EmployeeImportStatus startImport(MultipartFile csv, MultipartFile photos);
+
+    EmployeeImportStatus getImport(UUID jobId);
+}
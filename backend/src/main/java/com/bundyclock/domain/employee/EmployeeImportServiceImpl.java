@@ -0,0 +1,480 @@
+package com.bundyclock.domain.employee;
+
+import com.bundyclock.common.exception.ResourceNotFoundException;
+import com.bundyclock.common.exception.ServiceUnavailableException;
+import com.bundyclock.domain.face.FaceService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Bulk employee import.
+ *
+ * <p>The CSV is parsed during the request so a malformed file is rejected
+ * with 400; the photos zip is moved into {@code app.employee-import.work-dir}
+ * because the multipart temp file is deleted once the request completes. The
+ * rest runs on a virtual thread:
+ * <ol>
+ *   <li>every row is validated, and codes and emails are checked against the
+ *       file and against the table with one {@code IN} query per chunk;</li>
+ *   <li>valid rows are inserted with {@code saveAll} in transactions of
+ *       {@code batch-size} rows (JDBC-batched by Hibernate); a batch that hits
+ *       a unique constraint, because someone else took a code since
+ *       validation, is retried row by row to find the culprit;</li>
+ *   <li>new employees with a photo are enrolled through
+ *       {@link FaceService#registerFace}, at most {@code enroll-concurrency}
+ *       at a time across all imports so kiosks keep their share of the
+ *       face-recognition service, retrying when it answers 503.</li>
+ * </ol>
+ *
+ * <p>Jobs live in memory; the most recent {@value #MAX_JOBS} are kept.
+ */
+@Slf4j
+@Service
+public class EmployeeImportServiceImpl implements EmployeeImportService {
+
+    private static final int LOOKUP_CHUNK = 1_000;
+    private static final int MAX_ERRORS = 1_000;
+    private static final int MAX_JOBS = 100;
+    private static final int ENROLL_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 1_000;
+    private static final List<String> PHOTO_EXTENSIONS = List.of(".jpg", ".jpeg", ".png");
+
+    private final EmployeeRepository employeeRepository;
+    private final FaceService faceService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Semaphore enrollSlots;
+    private final long maxPhotoBytes;
+    private final Path workDir;
+
+    private final Map<UUID, Job> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Job> eldest) {
+            return size() > MAX_JOBS;
+        }
+    });
+
+    public EmployeeImportServiceImpl(
+            EmployeeRepository employeeRepository,
+            FaceService faceService,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.employee-import.batch-size:500}") int batchSize,
+            @Value("${app.employee-import.enroll-concurrency:4}") int enrollConcurrency,
+            @Value("${app.employee-import.max-photo-size:10MB}") DataSize maxPhotoSize,
+            @Value("${app.employee-import.work-dir:./data/employee-import}") String workDir) {
+        this.employeeRepository = employeeRepository;
+        this.faceService = faceService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.enrollSlots = new Semaphore(enrollConcurrency);
+        this.maxPhotoBytes = maxPhotoSize.toBytes();
+        this.workDir = Path.of(workDir);
+    }
+
+    @Override
+    public EmployeeImportStatus startImport(MultipartFile csv, MultipartFile photos) {
+        if (csv == null || csv.isEmpty()) throw new IllegalArgumentException("The CSV file is empty");
+        List<EmployeeImportCsv.Row> rows;
+        try (Reader reader = new BufferedReader(
+                new InputStreamReader(csv.getInputStream(), StandardCharsets.UTF_8))) {
+            rows = EmployeeImportCsv.read(reader);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read the CSV file: " + e.getMessage());
+        }
+        Path zip = photos != null && !photos.isEmpty() ? keep(photos) : null;
+
+        Job job = new Job(rows.size());
+        jobs.put(job.id, job);
+        log.info("Employee import {} queued — {} rows, photos={}", job.id, rows.size(), zip != null);
+        Thread.ofVirtual().name("employee-import-" + job.id).start(() -> run(job, rows, zip));
+        return job.snapshot();
+    }
+
+    @Override
+    public EmployeeImportStatus getImport(UUID jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) throw new ResourceNotFoundException("Import job not found: " + jobId);
+        return job.snapshot();
+    }
+
+    /** Moves the uploaded zip out of the multipart temp area, checking that it is a zip. */
+    private Path keep(MultipartFile photos) {
+        Path zip = null;
+        try {
+            Files.createDirectories(workDir);
+            zip = Files.createTempFile(workDir, "photos-", ".zip");
+            photos.transferTo(zip);
+            new ZipFile(zip.toFile()).close();
+            return zip;
+        } catch (IOException e) {
+            deleteQuietly(zip);
+            throw new IllegalArgumentException("Could not read the photos zip: " + e.getMessage());
+        }
+    }
+
+    private void run(Job job, List<EmployeeImportCsv.Row> rows, Path zip) {
+        try (ZipFile photos = zip != null ? new ZipFile(zip.toFile()) : null) {
+            job.state = EmployeeImportStatus.State.VALIDATING;
+            List<EmployeeImportCsv.Row> valid = validate(job, rows);
+
+            job.state = EmployeeImportStatus.State.INSERTING;
+            List<Created> created = insert(job, valid);
+
+            if (photos != null) {
+                job.state = EmployeeImportStatus.State.ENROLLING;
+                enroll(job, created, photos);
+            }
+            job.state = EmployeeImportStatus.State.COMPLETED;
+        } catch (Exception e) {
+            log.error("Employee import {} failed: {}", job.id, e.getMessage(), e);
+            job.message = e.getMessage();
+            job.state = EmployeeImportStatus.State.FAILED;
+        } finally {
+            job.finishedAt = Instant.now();
+            deleteQuietly(zip);
+            log.info("Employee import {} {} — inserted={}, enrolled={}, failed={}",
+                    job.id, job.state, job.inserted.get(), job.enrolled.get(), job.failed.get());
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Validation
+    // -------------------------------------------------------------------------
+
+    private List<EmployeeImportCsv.Row> validate(Job job, List<EmployeeImportCsv.Row> rows) {
+        Set<String> codes = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<EmployeeImportCsv.Row> candidates = new ArrayList<>(rows.size());
+        for (EmployeeImportCsv.Row row : rows) {
+            String problem = problemWith(row);
+            if (problem == null && codes.contains(row.employeeCode())) {
+                problem = "Duplicate employee code in file";
+            } else if (problem == null && row.email() != null && emails.contains(row.email())) {
+                problem = "Duplicate email in file";
+            }
+            if (problem != null) {
+                job.reject(row, problem);
+                continue;
+            }
+            codes.add(row.employeeCode());
+            if (row.email() != null) emails.add(row.email());
+            candidates.add(row);
+        }
+
+        Set<String> takenCodes = existing(codes, employeeRepository::findExistingCodes);
+        Set<String> takenEmails = existing(emails, employeeRepository::findExistingEmails);
+        List<EmployeeImportCsv.Row> valid = new ArrayList<>(candidates.size());
+        for (EmployeeImportCsv.Row row : candidates) {
+            if (takenCodes.contains(row.employeeCode())) {
+                job.reject(row, "Employee code already exists");
+            } else if (row.email() != null && takenEmails.contains(row.email())) {
+                job.reject(row, "Email already exists");
+            } else {
+                valid.add(row);
+            }
+        }
+        return valid;
+    }
+
+    private static String problemWith(EmployeeImportCsv.Row row) {
+        if (row.name() == null) return "name is required";
+        if (row.employeeCode() == null) return "employeeCode is required";
+        if (row.name().length() > 255) return "name is longer than 255 characters";
+        if (row.employeeCode().length() > 50) return "employeeCode is longer than 50 characters";
+        if (row.department() != null && row.department().length() > 100) {
+            return "department is longer than 100 characters";
+        }
+        if (row.email() != null && (row.email().length() > 255 || row.email().indexOf('@') < 1)) {
+            return "email is not a valid address";
+        }
+        return null;
+    }
+
+    private static Set<String> existing(Set<String> values, Function<Collection<String>, List<String>> lookup) {
+        List<String> all = new ArrayList<>(values);
+        Set<String> taken = new HashSet<>();
+        for (int from = 0; from < all.size(); from += LOOKUP_CHUNK) {
+            taken.addAll(lookup.apply(all.subList(from, Math.min(all.size(), from + LOOKUP_CHUNK))));
+        }
+        return taken;
+    }
+
+    // -------------------------------------------------------------------------
+    // Insert
+    // -------------------------------------------------------------------------
+
+    private record Created(EmployeeImportCsv.Row row, Employee employee) {
+    }
+
+    private List<Created> insert(Job job, List<EmployeeImportCsv.Row> rows) {
+        List<Created> created = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<EmployeeImportCsv.Row> batch = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            try {
+                List<Employee> employees = batch.stream().map(EmployeeImportServiceImpl::toEmployee).toList();
+                List<Employee> saved = transactionTemplate.execute(status ->
+                        employeeRepository.saveAllAndFlush(employees));
+                for (int i = 0; i < batch.size(); i++) {
+                    created.add(new Created(batch.get(i), saved.get(i)));
+                }
+                job.inserted.addAndGet(batch.size());
+            } catch (DataIntegrityViolationException e) {
+                // Taken since validation by a concurrent insert; find out which rows.
+                for (EmployeeImportCsv.Row row : batch) {
+                    try {
+                        Employee saved = transactionTemplate.execute(status ->
+                                employeeRepository.saveAndFlush(toEmployee(row)));
+                        created.add(new Created(row, saved));
+                        job.inserted.incrementAndGet();
+                    } catch (DataIntegrityViolationException rowError) {
+                        job.reject(row, "Employee code or email already exists");
+                    }
+                }
+            }
+        }
+        return created;
+    }
+
+    private static Employee toEmployee(EmployeeImportCsv.Row row) {
+        return Employee.builder()
+                .name(row.name())
+                .employeeCode(row.employeeCode())
+                .department(row.department())
+                .email(row.email())
+                .build();
+    }
+
+    // -------------------------------------------------------------------------
+    // Face enrollment
+    // -------------------------------------------------------------------------
+
+    private void enroll(Job job, List<Created> created, ZipFile photos) {
+        Map<String, ZipEntry> index = indexPhotos(photos);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Created employee : created) {
+                ZipEntry entry = findPhoto(index, employee.row());
+                if (entry == null) {
+                    if (employee.row().photo() != null) {
+                        job.reject(employee.row(), "Photo " + employee.row().photo() + " not found in the zip");
+                    }
+                    continue;
+                }
+                job.photos.incrementAndGet();
+                executor.submit(() -> enrollOne(job, employee, photos, entry));
+            }
+        }
+    }
+
+    private void enrollOne(Job job, Created employee, ZipFile photos, ZipEntry entry) {
+        try {
+            enrollSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            byte[] bytes;
+            try (InputStream in = photos.getInputStream(entry)) {
+                bytes = in.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxPhotoBytes + 1));
+            }
+            if (bytes.length > maxPhotoBytes) {
+                job.reject(employee.row(), "Photo " + entry.getName() + " is larger than " + maxPhotoBytes + " bytes");
+                return;
+            }
+            MultipartFile image = new PhotoFile(baseName(entry.getName()), bytes);
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    faceService.registerFace(employee.employee().getId(), image);
+                    job.enrolled.incrementAndGet();
+                    return;
+                } catch (ServiceUnavailableException e) {
+                    if (attempt == ENROLL_ATTEMPTS) throw e;
+                    Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            job.reject(employee.row(), "Face enrollment failed: " + e.getMessage());
+        } finally {
+            enrollSlots.release();
+        }
+    }
+
+    /** Zip entries by lower-cased file name, ignoring folders and macOS metadata. */
+    private static Map<String, ZipEntry> indexPhotos(ZipFile photos) {
+        Map<String, ZipEntry> index = new HashMap<>();
+        Enumeration<? extends ZipEntry> entries = photos.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String name = baseName(entry.getName());
+            if (entry.isDirectory() || name.startsWith(".") || entry.getName().startsWith("__MACOSX/")) continue;
+            index.putIfAbsent(name.toLowerCase(Locale.ROOT), entry);
+        }
+        return index;
+    }
+
+    /** The file named in the row's photo column, else {@code <employeeCode>.jpg|.jpeg|.png}. */
+    private static ZipEntry findPhoto(Map<String, ZipEntry> index, EmployeeImportCsv.Row row) {
+        if (row.photo() != null) return index.get(baseName(row.photo()).toLowerCase(Locale.ROOT));
+        String code = row.employeeCode().toLowerCase(Locale.ROOT);
+        for (String extension : PHOTO_EXTENSIONS) {
+            ZipEntry entry = index.get(code + extension);
+            if (entry != null) return entry;
+        }
+        return null;
+    }
+
+    private static String baseName(String path) {
+        return path.substring(Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1);
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Job state
+    // -------------------------------------------------------------------------
+
+    private static final class Job {
+
+        final UUID id = UUID.randomUUID();
+        final Instant startedAt = Instant.now();
+        final int totalRows;
+        final AtomicInteger inserted = new AtomicInteger();
+        final AtomicInteger photos = new AtomicInteger();
+        final AtomicInteger enrolled = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final List<EmployeeImportStatus.RowError> errors = new ArrayList<>();
+        volatile EmployeeImportStatus.State state = EmployeeImportStatus.State.QUEUED;
+        volatile String message;
+        volatile Instant finishedAt;
+
+        Job(int totalRows) {
+            this.totalRows = totalRows;
+        }
+
+        void reject(EmployeeImportCsv.Row row, String message) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_ERRORS) {
+                    errors.add(new EmployeeImportStatus.RowError(row.line(), row.employeeCode(), message));
+                }
+            }
+        }
+
+        EmployeeImportStatus snapshot() {
+            List<EmployeeImportStatus.RowError> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = List.copyOf(errors);
+            }
+            return EmployeeImportStatus.builder()
+                    .jobId(id)
+                    .state(state)
+                    .totalRows(totalRows)
+                    .inserted(inserted.get())
+                    .photos(photos.get())
+                    .enrolled(enrolled.get())
+                    .failed(failed.get())
+                    .errors(errorsCopy)
+                    .message(message)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+
+    /** A photo read from the zip, in the shape {@link FaceService} accepts. */
+    private static final class PhotoFile implements MultipartFile {
+
+        private final String filename;
+        private final byte[] bytes;
+
+        PhotoFile(String filename, byte[] bytes) {
+            this.filename = filename;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public String getName() {
+            return "image";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return filename;
+        }
+
+        @Override
+        public String getContentType() {
+            return filename.toLowerCase(Locale.ROOT).endsWith(".png") ? "image/png" : "image/jpeg";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return bytes.length == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return bytes.length;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.write(dest.toPath(), bytes);
+        }
+    }
+}
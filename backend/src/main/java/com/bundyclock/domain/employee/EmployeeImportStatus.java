@@ -0,0 +1,40 @@
+package com.bundyclock.domain.employee;
+
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progress of a bulk employee import, as returned by
+ * {@code POST /api/employees/import} and {@code GET /api/employees/import/{jobId}}.
+ *
+ * @param totalRows data rows in the CSV
+ * @param inserted  employees created
+ * @param photos    inserted employees with a matching photo in the zip
+ * @param enrolled  faces registered with the face-recognition service
+ * @param failed    rows rejected or whose photo could not be enrolled
+ * @param errors    per-row errors, capped; {@code failed} keeps the full count
+ * @param message   why the job stopped, when it is {@code FAILED}
+ */
+@Builder
+public record EmployeeImportStatus(
+        UUID jobId,
+        State state,
+        int totalRows,
+        int inserted,
+        int photos,
+        int enrolled,
+        int failed,
+        List<RowError> errors,
+        String message,
+        Instant startedAt,
+        Instant finishedAt) {
+
+    public enum State { QUEUED, VALIDATING, INSERTING, ENROLLING, COMPLETED, FAILED }
+
+    /** {@code row} is the CSV line number, counting the header as line 1. */
+    public record RowError(int row, String employeeCode, String message) {
+    }
+}
@@ -1,13 +1,17 @@
 package com.bundyclock.domain.employee;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, UUID> {
+public interface EmployeeRepository extends JpaRepository<Employee, UUID>, EmployeeSearchRepository {
 
     Optional<Employee> findByEmployeeCode(String employeeCode);
 
@@ -16,4 +20,12 @@ public interface EmployeeRepository extends JpaRepository<Employee, UUID> {
     boolean existsByEmployeeCode(String employeeCode);
 
     boolean existsByEmail(String email);
+
+    /** The subset of {@code codes} already taken; used to validate a bulk import in one query per chunk. */
+    @Query("SELECT e.employeeCode FROM Employee e WHERE e.employeeCode IN :codes")
+    List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    /** The subset of {@code emails} already taken. */
+    @Query("SELECT e.email FROM Employee e WHERE e.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
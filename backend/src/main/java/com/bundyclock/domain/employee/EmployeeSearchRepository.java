@@ -0,0 +1,14 @@
+package com.bundyclock.domain.employee;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/** Listing queries that project straight to {@link EmployeeSummary}. */
+public interface EmployeeSearchRepository {
+
+    /**
+     * Employees whose name or code starts with {@code query} (case-insensitive)
+     * and, when given, belong to {@code department}.
+     */
+    Page<EmployeeSummary> search(String query, String department, Pageable pageable);
+}
@@ -0,0 +1,75 @@
+package com.bundyclock.domain.employee;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Criteria implementation of {@link EmployeeSearchRepository}. The prefix
+ * match is written as {@code lower(column) LIKE 'prefix%'} so it can use the
+ * {@code text_pattern_ops} indexes from migration V7.
+ */
+class EmployeeSearchRepositoryImpl implements EmployeeSearchRepository {
+
+    private static final char ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<EmployeeSummary> search(String query, String department, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeSummary> select = cb.createQuery(EmployeeSummary.class);
+        Root<Employee> root = select.from(Employee.class);
+        select.select(cb.construct(EmployeeSummary.class,
+                        root.get("id"), root.get("name"), root.get("employeeCode"),
+                        root.get("department"), root.get("email")))
+                .where(predicates(cb, root, query, department))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<EmployeeSummary> items = entityManager.createQuery(select)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // The count is skipped when this page already shows where the results end.
+        return PageableExecutionUtils.getPage(items, pageable, () -> count(query, department));
+    }
+
+    private long count(String query, String department) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        Root<Employee> root = count.from(Employee.class);
+        count.select(cb.count(root)).where(predicates(cb, root, query, department));
+        return entityManager.createQuery(count).getSingleResult();
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<Employee> root, String query, String department) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (query != null) {
+            String prefix = escapeLike(query.toLowerCase(Locale.ROOT)) + "%";
+            predicates.add(cb.or(
+                    cb.like(cb.lower(root.get("name")), prefix, ESCAPE),
+                    cb.like(cb.lower(root.get("employeeCode")), prefix, ESCAPE)));
+        }
+        if (department != null) {
+            predicates.add(cb.equal(root.get("department"), department));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,14 +1,22 @@
 package com.bundyclock.domain.employee;
 
-import java.util.List;
+import com.bundyclock.common.dto.PageResponse;
+
 import java.util.UUID;
 
 public interface EmployeeService {
 
-    List<Employee> getAllEmployees();
+    /**
+     * Returns one page of employees whose name or code starts with {@code query},
+     * optionally only those in {@code department}, sorted by {@code sort}.
+     */
+    PageResponse<EmployeeSummary> searchEmployees(String query, String department,
+                                                  int page, int size, String sort, String direction);
 
     Employee getEmployeeById(UUID id);
 
+    Employee getEmployeeByCode(String employeeCode);
+
     Employee createEmployee(Employee employee);
 
     Employee updateEmployee(UUID id, Employee employee);
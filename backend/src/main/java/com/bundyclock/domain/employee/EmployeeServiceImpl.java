@@ -1,11 +1,18 @@
 package com.bundyclock.domain.employee;
 
+import com.bundyclock.common.dto.PageResponse;
 import com.bundyclock.common.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -13,18 +20,44 @@ import java.util.UUID;
 @Transactional(readOnly = true)
 public class EmployeeServiceImpl implements EmployeeService {
 
+    /**
+     * Read-through caches for single-employee lookups (see CacheConfig).
+     * Cached instances are shared between callers and must not be modified.
+     */
+    public static final String CACHE_BY_ID = "employees";
+    public static final String CACHE_BY_CODE = "employeesByCode";
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Set<String> SORTABLE = Set.of("name", "employeeCode", "department", "createdAt");
+
     private final EmployeeRepository employeeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public List<Employee> getAllEmployees() {
-        // TODO: Add pagination support
-        return employeeRepository.findAll();
+    public PageResponse<EmployeeSummary> searchEmployees(String query, String department,
+                                                         int page, int size, String sort, String direction) {
+        if (page < 0) throw new IllegalArgumentException("page must not be negative");
+        if (size < 1) throw new IllegalArgumentException("size must be at least 1");
+        if (!SORTABLE.contains(sort)) {
+            throw new IllegalArgumentException("Cannot sort by " + sort + "; use one of " + SORTABLE);
+        }
+        // id breaks ties so rows never move between pages.
+        Sort order = Sort.by(Sort.Direction.fromString(direction), sort).and(Sort.by("id"));
+        PageRequest pageable = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), order);
+        return PageResponse.of(employeeRepository.search(blankToNull(query), blankToNull(department), pageable));
     }
 
     @Override
+    @Cacheable(cacheNames = CACHE_BY_ID, key = "#id")
     public Employee getEmployeeById(UUID id) {
-        return employeeRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + id));
+        return findExisting(id);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CACHE_BY_CODE, key = "#employeeCode")
+    public Employee getEmployeeByCode(String employeeCode) {
+        return employeeRepository.findByEmployeeCode(employeeCode)
+            .orElseThrow(() -> new ResourceNotFoundException("Employee not found with code: " + employeeCode));
     }
 
     @Override
@@ -36,8 +69,12 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CACHE_BY_ID, key = "#id"),
+        @CacheEvict(cacheNames = CACHE_BY_CODE, key = "#result.employeeCode")
+    })
     public Employee updateEmployee(UUID id, Employee employee) {
-        Employee existing = getEmployeeById(id);
+        Employee existing = findExisting(id);
         existing.setName(employee.getName());
         existing.setDepartment(employee.getDepartment());
         existing.setEmail(employee.getEmail());
@@ -46,8 +83,22 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CACHE_BY_ID, key = "#id"),
+        @CacheEvict(cacheNames = CACHE_BY_CODE, allEntries = true)  // the code is not known up front; deletes are rare
+    })
     public void deleteEmployee(UUID id) {
-        Employee existing = getEmployeeById(id);
+        Employee existing = findExisting(id);
         employeeRepository.delete(existing);
+        eventPublisher.publishEvent(new EmployeeDeletedEvent(id));
+    }
+
+    private Employee findExisting(UUID id) {
+        return employeeRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + id));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
     }
 }
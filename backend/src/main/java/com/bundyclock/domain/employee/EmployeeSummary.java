@@ -0,0 +1,7 @@
+package com.bundyclock.domain.employee;
+
+import java.util.UUID;
+
+/** The columns the employee listing shows, selected directly instead of loading entities. */
+public record EmployeeSummary(UUID id, String name, String employeeCode, String department, String email) {
+}
@@ -0,0 +1,75 @@
+package com.bundyclock.domain.face;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Binary encoding of embedding vectors for the {@code face_embeddings.embedding} column.
+ *
+ * <p>Layout: one format byte followed by the components in little-endian order,
+ * either as float32 (4 bytes each) or IEEE 754 half precision (2 bytes each).
+ * The format byte makes every row self-describing, so float32 and float16 rows
+ * can coexist after the storage setting is changed.
+ */
+public final class EmbeddingCodec {
+
+    public enum Format {
+        FLOAT32((byte) 1, Float.BYTES),
+        FLOAT16((byte) 2, Short.BYTES);
+
+        private final byte tag;
+        private final int bytesPerComponent;
+
+        Format(byte tag, int bytesPerComponent) {
+            this.tag = tag;
+            this.bytesPerComponent = bytesPerComponent;
+        }
+
+        public static Format of(String name) {
+            return switch (name.trim().toLowerCase()) {
+                case "float32" -> FLOAT32;
+                case "float16" -> FLOAT16;
+                default -> throw new IllegalArgumentException("Unknown embedding storage format: " + name);
+            };
+        }
+
+        private static Format ofTag(byte tag) {
+            for (Format format : values()) {
+                if (format.tag == tag) return format;
+            }
+            throw new IllegalArgumentException("Unknown embedding format tag: " + tag);
+        }
+    }
+
+    private EmbeddingCodec() {
+    }
+
+    public static byte[] encode(float[] vector, Format format) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + vector.length * format.bytesPerComponent)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(format.tag);
+        if (format == Format.FLOAT32) {
+            buffer.asFloatBuffer().put(vector);
+        } else {
+            for (float v : vector) {
+                buffer.putShort(Float.floatToFloat16(v));
+            }
+        }
+        return buffer.array();
+    }
+
+    public static float[] decode(byte[] bytes) {
+        Format format = Format.ofTag(bytes[0]);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1).slice()
+                .order(ByteOrder.LITTLE_ENDIAN);
+        float[] vector = new float[(bytes.length - 1) / format.bytesPerComponent];
+        if (format == Format.FLOAT32) {
+            buffer.asFloatBuffer().get(vector);
+        } else {
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = Float.float16ToFloat(buffer.getShort());
+            }
+        }
+        return vector;
+    }
+}
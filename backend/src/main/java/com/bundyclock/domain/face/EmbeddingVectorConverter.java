@@ -0,0 +1,35 @@
+package com.bundyclock.domain.face;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps {@link FaceEmbedding#getEmbedding()} to the binary {@code embedding} column.
+ *
+ * <p>Instantiated by Spring through Hibernate's bean container, so the storage
+ * precision follows {@code app.face-recognition.embedding-storage}
+ * ({@code float32} or {@code float16}). Reads accept either format.
+ */
+@Component
+@Converter
+public class EmbeddingVectorConverter implements AttributeConverter<float[], byte[]> {
+
+    private EmbeddingCodec.Format format = EmbeddingCodec.Format.FLOAT32;
+
+    @Value("${app.face-recognition.embedding-storage:float32}")
+    void setFormat(String format) {
+        this.format = EmbeddingCodec.Format.of(format);
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(float[] vector) {
+        return vector == null ? null : EmbeddingCodec.encode(vector, format);
+    }
+
+    @Override
+    public float[] convertToEntityAttribute(byte[] bytes) {
+        return bytes == null || bytes.length == 0 ? null : EmbeddingCodec.decode(bytes);
+    }
+}
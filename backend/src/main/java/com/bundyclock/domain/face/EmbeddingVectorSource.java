@@ -0,0 +1,15 @@
+package com.bundyclock.domain.face;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Supplies full-precision vectors for a handful of gallery entries, used by
+ * matchers that keep only a compressed copy in memory.
+ */
+public interface EmbeddingVectorSource {
+
+    /** Returns the stored vectors by embedding id; missing ids are simply absent. */
+    Map<UUID, float[]> load(Collection<UUID> embeddingIds);
+}
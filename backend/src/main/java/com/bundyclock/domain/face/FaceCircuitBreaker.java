@@ -0,0 +1,220 @@
+package com.bundyclock.domain.face;
+
+import com.bundyclock.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Circuit breaker for calls to the face service.
+ *
+ * <p>Closed, it tracks the outcome of the last
+ * {@code app.face-recognition.circuit-breaker.window} calls; a call counts as
+ * failed when it errors or takes longer than {@code slow-call-threshold}.
+ * Once at least {@code minimum-calls} are tracked and the failed share
+ * reaches {@code failure-rate-threshold}, it opens: for {@code open-duration}
+ * every call is refused at once with {@link ServiceUnavailableException},
+ * whose {@code Retry-After} says when to come back, so kiosks get a quick
+ * 503 instead of waiting on a service that is not answering. It then lets
+ * {@code half-open-calls} probe calls through; if they all succeed it closes,
+ * and if any fails it opens again. The state is published as the
+ * {@code face.client.circuit.state} gauge (0 closed, 1 half-open, 2 open) and
+ * refused calls as {@code face.client.circuit.rejected}.
+ */
+@Slf4j
+@Component
+public class FaceCircuitBreaker {
+
+    enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final boolean enabled;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration slowCallThreshold;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final Clock clock;
+    private final Counter rejected;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Outcomes of the most recent calls while closed, {@code true} for a failure. */
+    private final boolean[] window;
+    private int recorded;
+    private int failures;
+    private int next;
+
+    private State state = State.CLOSED;
+    private Instant openUntil = Instant.MIN;
+    private int probesInFlight;
+    private int probesSucceeded;
+
+    @Autowired
+    public FaceCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${app.face-recognition.circuit-breaker.enabled:true}") boolean enabled,
+            @Value("${app.face-recognition.circuit-breaker.window:20}") int window,
+            @Value("${app.face-recognition.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${app.face-recognition.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${app.face-recognition.circuit-breaker.slow-call-threshold:5s}") Duration slowCallThreshold,
+            @Value("${app.face-recognition.circuit-breaker.open-duration:30s}") Duration openDuration,
+            @Value("${app.face-recognition.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        this(meterRegistry, enabled, window, minimumCalls, failureRateThreshold, slowCallThreshold, openDuration,
+                halfOpenCalls, Clock.systemUTC());
+    }
+
+    FaceCircuitBreaker(MeterRegistry meterRegistry, boolean enabled, int window, int minimumCalls,
+                       double failureRateThreshold, Duration slowCallThreshold, Duration openDuration,
+                       int halfOpenCalls, Clock clock) {
+        this.enabled = enabled;
+        this.window = new boolean[window];
+        this.minimumCalls = Math.min(minimumCalls, window);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThreshold = slowCallThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        this.rejected = Counter.builder("face.client.circuit.rejected")
+                .description("Calls to the face service refused while the circuit was open")
+                .register(meterRegistry);
+        Gauge.builder("face.client.circuit.state", this, breaker -> breaker.state().ordinal())
+                .description("Face service circuit: 0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Asks to make a call. Every permitted call must be followed by exactly
+     * one of {@link #onSuccess}, {@link #onFailure} or {@link #onCancelled}.
+     *
+     * @throws ServiceUnavailableException when the circuit is open, or half-open with its probes already in flight
+     */
+    public void acquirePermission() {
+        if (!enabled) return;
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                Instant now = clock.instant();
+                if (now.isBefore(openUntil)) {
+                    rejected.increment();
+                    throw new ServiceUnavailableException("Face recognition service is unavailable, please retry",
+                            Duration.between(now, openUntil));
+                }
+                transition(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight + probesSucceeded >= halfOpenCalls) {
+                    rejected.increment();
+                    throw new ServiceUnavailableException("Face recognition service is recovering, please retry");
+                }
+                probesInFlight++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Records a call that got an answer, counted as a failure if it took longer than the slow-call threshold. */
+    public void onSuccess(Duration elapsed) {
+        if (elapsed.compareTo(slowCallThreshold) > 0) {
+            log.warn("Face service call took {} ms", elapsed.toMillis());
+            onFailure();
+            return;
+        }
+        if (!enabled) return;
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight > 0) probesInFlight--;
+                if (++probesSucceeded >= halfOpenCalls) transition(State.CLOSED);
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure() {
+        if (!enabled) return;
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                transition(State.OPEN);
+            } else if (state == State.CLOSED) {
+                record(true);
+                if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+                    transition(State.OPEN);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Releases a permission whose call never reached the service. */
+    public void onCancelled() {
+        if (!enabled) return;
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN && probesInFlight > 0) probesInFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Called with {@code lock} held. */
+    private void record(boolean failed) {
+        if (recorded == window.length) {
+            if (window[next]) failures--;
+        } else {
+            recorded++;
+        }
+        window[next] = failed;
+        if (failed) failures++;
+        next = (next + 1) % window.length;
+    }
+
+    /** Called with {@code lock} held. */
+    private void transition(State to) {
+        switch (to) {
+            case OPEN -> {
+                openUntil = clock.instant().plus(openDuration);
+                if (state == State.HALF_OPEN) {
+                    log.warn("Face service probe call failed; failing fast for another {}", openDuration);
+                } else {
+                    log.warn("Face service circuit opened ({} of the last {} calls failed); failing fast for {}",
+                            failures, recorded, openDuration);
+                }
+            }
+            case HALF_OPEN -> log.info("Face service circuit half-open; letting {} probe calls through", halfOpenCalls);
+            case CLOSED -> log.info("Face service circuit closed");
+        }
+        state = to;
+        recorded = 0;
+        failures = 0;
+        next = 0;
+        probesInFlight = 0;
+        probesSucceeded = 0;
+    }
+}
@@ -6,7 +6,10 @@ import java.util.UUID;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -35,11 +38,13 @@ public class FaceEmbedding {
     private UUID employeeId;
 
     /**
-     * JSON-serialized float array of face embedding vector.
-     * Store as TEXT for portability. Consider pgvector for production.
+     * Face embedding vector, stored as little-endian binary (see {@link EmbeddingCodec}).
+     * Not serialized in API responses.
      */
-    @Column(name = "embedding_vector", columnDefinition = "TEXT")
-    private String embeddingVector;
+    @JsonIgnore
+    @Convert(converter = EmbeddingVectorConverter.class)
+    @Column(name = "embedding", columnDefinition = "BYTEA")
+    private float[] embedding;
 
     @Column(name = "raw_image_path", length = 500)
     private String rawImagePath;
@@ -0,0 +1,157 @@
+package com.bundyclock.domain.face;
+
+import com.bundyclock.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces concurrent probe embeddings into batched calls to the face service.
+ *
+ * <p>Kiosks punch in bursts at shift change. Each verify queues its image and
+ * waits; a dispatcher takes the first queued image, collects whatever else
+ * arrives within {@code app.face-recognition.batching.window} (up to
+ * {@code max-batch-size}) and sends them as one {@code /represent-faces} call
+ * on its own virtual thread. The model then runs once per batch, and a batch
+ * holds one of the client's in-flight slots instead of one per image. A lone
+ * image still goes to {@code /represent-face}, so a quiet kiosk only pays the
+ * window in added latency. Batch sizes are published as
+ * {@code face.client.batch.size}.
+ */
+@Slf4j
+@Component
+public class FaceEmbeddingBatcher {
+
+    private final FaceRecognitionClient faceRecognitionClient;
+    private final FaceImagePreprocessor faceImagePreprocessor;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<Probe> queue;
+    private final DistributionSummary batchSizes;
+    private final Thread dispatcher;
+
+    public FaceEmbeddingBatcher(
+            FaceRecognitionClient faceRecognitionClient,
+            FaceImagePreprocessor faceImagePreprocessor,
+            MeterRegistry meterRegistry,
+            @Value("${app.face-recognition.batching.enabled:true}") boolean enabled,
+            @Value("${app.face-recognition.batching.window:5ms}") Duration window,
+            @Value("${app.face-recognition.batching.max-batch-size:16}") int maxBatchSize,
+            @Value("${app.face-recognition.batching.queue-capacity:256}") int queueCapacity) {
+        this.faceRecognitionClient = faceRecognitionClient;
+        this.faceImagePreprocessor = faceImagePreprocessor;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("face.client.batch.size")
+                .description("Probe images per call to the face service")
+                .register(meterRegistry);
+        this.dispatcher = enabled ? Thread.ofVirtual().name("face-embedding-batcher").start(this::dispatch) : null;
+    }
+
+    /**
+     * Computes the embedding of a probe image, batched with any others that
+     * arrive at the same time. The image is preprocessed on the caller's
+     * thread, so a rejected frame never holds up a batch.
+     *
+     * @return the embedding, or {@code null} when no face was detected
+     * @throws IllegalArgumentException when preprocessing rejects the image
+     * @throws ServiceUnavailableException when too many probes are already waiting
+     */
+    public float[] represent(MultipartFile image) throws IOException {
+        Resource prepared = faceImagePreprocessor.prepare(image);
+        if (!enabled) return faceRecognitionClient.represent(prepared);
+
+        Probe probe = new Probe(prepared);
+        if (!queue.offer(probe)) {
+            throw new ServiceUnavailableException("Face recognition service is busy, please retry");
+        }
+        try {
+            return probe.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the face recognition service");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher != null) dispatcher.interrupt();
+        List<Probe> waiting = new ArrayList<>();
+        queue.drainTo(waiting);
+        fail(waiting, new ServiceUnavailableException("Face embedding batcher stopped"));
+    }
+
+    private void dispatch() {
+        List<Probe> batch = new ArrayList<>(maxBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    Probe next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                fail(batch, new ServiceUnavailableException("Face embedding batcher stopped"));
+                return;
+            }
+            List<Probe> ready = List.copyOf(batch);
+            batch.clear();
+            Thread.ofVirtual().name("face-embedding-batch").start(() -> send(ready));
+        }
+    }
+
+    private void send(List<Probe> batch) {
+        batchSizes.record(batch.size());
+        try {
+            if (batch.size() == 1) {
+                batch.get(0).result.complete(faceRecognitionClient.represent(batch.get(0).image));
+                return;
+            }
+            List<float[]> embeddings = faceRecognitionClient.representBatch(
+                    batch.stream().map(probe -> probe.image).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(embeddings.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) log.warn("Batched embedding of {} probes failed: {}", batch.size(), e.getMessage());
+            fail(batch, e);
+        }
+    }
+
+    private static void fail(List<Probe> probes, RuntimeException e) {
+        probes.forEach(probe -> probe.result.completeExceptionally(e));
+    }
+
+    private static final class Probe {
+
+        final Resource image;
+        final CompletableFuture<float[]> result = new CompletableFuture<>();
+
+        Probe(Resource image) {
+            this.image = image;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.bundyclock.domain.face;
+
+import com.bundyclock.domain.employee.EmployeeDeletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory gallery of registered face embeddings.
+ *
+ * <p>Vectors are L2-normalised here and handed to the configured
+ * {@link FaceMatcher}, so cosine similarity reduces to a dot product. The
+ * index is loaded once the application is ready and kept current by
+ * {@link FaceServiceImpl} and employee deletions.
+ *
+ * <p>When a {@link FaceIndexSnapshot} exists, only rows updated after its
+ * watermark are read from {@code face_embeddings}; every other vector comes
+ * from the snapshot, provided its row still exists. The snapshot is rewritten
+ * the same way on a fixed delay.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FaceEmbeddingIndex {
+
+    /** Rows committed slightly out of {@code updated_at} order are still replayed. */
+    private static final Duration REPLAY_OVERLAP = Duration.ofMinutes(5);
+
+    private final FaceEmbeddingRepository faceEmbeddingRepository;
+    private final FaceMatcher faceMatcher;
+    private final FaceIndexSnapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.nanoTime();
+        AtomicInteger skipped = new AtomicInteger();
+        int fromSnapshot = readGallery(entry -> {
+            if (!add(entry.embeddingId(), entry.employeeId(), entry.vector())) {
+                skipped.incrementAndGet();
+            }
+        });
+        log.info("Face embedding index loaded — {} vectors ({} from snapshot, {} rows skipped) in {} ms",
+                size(), fromSnapshot, skipped.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Rewrites the snapshot from the previous snapshot plus rows changed since its watermark. */
+    @Scheduled(initialDelayString = "${app.face-recognition.snapshot.interval:PT10M}",
+            fixedDelayString = "${app.face-recognition.snapshot.interval:PT10M}")
+    @Transactional(readOnly = true)
+    public void writeSnapshot() {
+        if (!snapshot.isEnabled()) return;
+        ZonedDateTime watermark = faceEmbeddingRepository.findMaxUpdatedAt();
+        if (watermark == null) return;
+        try {
+            snapshot.write(watermark.toInstant(), this::readGallery);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Face index snapshot failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Adds an embedding to the gallery.
+     *
+     * @return {@code false} if the vector was rejected (empty, zero or wrong dimension)
+     */
+    public boolean add(UUID embeddingId, UUID employeeId, float[] vector) {
+        float[] normalized = FaceVectors.normalize(vector);
+        if (normalized == null) {
+            log.warn("Ignoring zero-length embedding {}", embeddingId);
+            return false;
+        }
+        if (!faceMatcher.add(embeddingId, employeeId, normalized)) {
+            log.warn("Ignoring embedding {} — dimension {} does not match the gallery",
+                    embeddingId, normalized.length);
+            return false;
+        }
+        return true;
+    }
+
+    /** Returns the gallery entry with the highest cosine similarity to the probe. */
+    public Optional<FaceMatch> findBest(float[] probe) {
+        float[] query = FaceVectors.normalize(probe);
+        if (query == null) return Optional.empty();
+        return faceMatcher.findBest(query);
+    }
+
+    /** Drops an employee's vectors once the deletion has committed. */
+    @TransactionalEventListener
+    public void onEmployeeDeleted(EmployeeDeletedEvent event) {
+        int removed = faceMatcher.removeEmployee(event.employeeId());
+        log.info("Removed {} face embeddings of deleted employee {}", removed, event.employeeId());
+    }
+
+    public int size() {
+        return faceMatcher.size();
+    }
+
+    /**
+     * Pushes the current gallery into {@code sink}, each embedding once: rows
+     * changed since the snapshot's watermark (or every row when there is no
+     * snapshot) come from the database, the rest from the snapshot as long as
+     * the row still exists.
+     *
+     * @return number of entries taken from the snapshot
+     */
+    private int readGallery(Consumer<GalleryEntry> sink) {
+        Set<UUID> seen = new HashSet<>();
+        Optional<Instant> watermark = snapshot.watermark();
+
+        try (Stream<GalleryEntry> rows = watermark
+                .map(w -> faceEmbeddingRepository.streamGalleryUpdatedAfter(
+                        w.minus(REPLAY_OVERLAP).atZone(ZoneOffset.UTC)))
+                .orElseGet(faceEmbeddingRepository::streamGallery)) {
+            rows.forEach(entry -> {
+                seen.add(entry.embeddingId());
+                sink.accept(entry);
+            });
+        }
+        if (watermark.isEmpty()) return 0;
+
+        Set<UUID> live = new HashSet<>(faceEmbeddingRepository.findAllIds());
+        live.removeAll(seen);
+        AtomicInteger fromSnapshot = new AtomicInteger();
+        snapshot.restore(live::remove, entry -> {
+            fromSnapshot.incrementAndGet();
+            sink.accept(entry);
+        });
+        return fromSnapshot.get();
+    }
+}
@@ -1,11 +1,18 @@
 package com.bundyclock.domain.face;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface FaceEmbeddingRepository extends JpaRepository<FaceEmbedding, UUID> {
@@ -15,4 +22,23 @@ public interface FaceEmbeddingRepository extends JpaRepository<FaceEmbedding, UU
     List<FaceEmbedding> findAllByEmployeeId(UUID employeeId);
 
     boolean existsByEmployeeId(UUID employeeId);
+
+    /** Streams every stored vector as a DTO, so loading the gallery never fills the persistence context. */
+    @Query("select new com.bundyclock.domain.face.GalleryEntry(f.id, f.employeeId, f.embedding) "
+            + "from FaceEmbedding f where f.embedding is not null")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<GalleryEntry> streamGallery();
+
+    /** Streams the vectors written after {@code after}, to top up a gallery restored from a snapshot. */
+    @Query("select new com.bundyclock.domain.face.GalleryEntry(f.id, f.employeeId, f.embedding) "
+            + "from FaceEmbedding f where f.embedding is not null and f.updatedAt > :after")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<GalleryEntry> streamGalleryUpdatedAfter(@Param("after") ZonedDateTime after);
+
+    /** Ids of every stored embedding, used to prune deleted rows from a snapshot. */
+    @Query("select f.id from FaceEmbedding f")
+    List<UUID> findAllIds();
+
+    @Query("select max(f.updatedAt) from FaceEmbedding f")
+    ZonedDateTime findMaxUpdatedAt();
 }
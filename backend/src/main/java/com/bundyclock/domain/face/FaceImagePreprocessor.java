@@ -0,0 +1,183 @@
+package com.bundyclock.domain.face;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Prepares face images before they are sent to the face service.
+ *
+ * <p>Kiosks upload full webcam frames. Each image is decoded once, checked
+ * for brightness and contrast so covered lenses and dark rooms are turned
+ * away without a network hop, scaled down so its longer edge is at most
+ * {@code app.face-recognition.preprocessing.max-dimension} and re-encoded as
+ * JPEG at {@code jpeg-quality}. The detector still needs the face to be a
+ * reasonable size within the frame, which is why the default is well above
+ * the recognition model's own 224-pixel input. A JPEG already within the
+ * limit is forwarded unchanged, streamed from the upload. Sizes before and after are published as
+ * {@code face.preprocess.bytes} tagged {@code stage=in|out}.
+ */
+@Component
+public class FaceImagePreprocessor {
+
+    private final boolean enabled;
+    private final int maxDimension;
+    private final float jpegQuality;
+    private final double minMeanLuma;
+    private final double minLumaStdDev;
+    private final DistributionSummary bytesIn;
+    private final DistributionSummary bytesOut;
+
+    public FaceImagePreprocessor(
+            MeterRegistry meterRegistry,
+            @Value("${app.face-recognition.preprocessing.enabled:true}") boolean enabled,
+            @Value("${app.face-recognition.preprocessing.max-dimension:640}") int maxDimension,
+            @Value("${app.face-recognition.preprocessing.jpeg-quality:0.85}") float jpegQuality,
+            @Value("${app.face-recognition.preprocessing.min-mean-luma:20}") double minMeanLuma,
+            @Value("${app.face-recognition.preprocessing.min-luma-stddev:8}") double minLumaStdDev) {
+        this.enabled = enabled;
+        this.maxDimension = maxDimension;
+        this.jpegQuality = jpegQuality;
+        this.minMeanLuma = minMeanLuma;
+        this.minLumaStdDev = minLumaStdDev;
+        this.bytesIn = bytesSummary(meterRegistry, "in");
+        this.bytesOut = bytesSummary(meterRegistry, "out");
+    }
+
+    /**
+     * Returns what to send to the face service for {@code image}: the upload
+     * itself when it can go as is, otherwise the re-encoded JPEG.
+     *
+     * @throws IllegalArgumentException when the image cannot be decoded, or is too dark or blank to hold a face
+     */
+    public Resource prepare(MultipartFile image) throws IOException {
+        if (!enabled) return new UploadedImageResource(image);
+
+        BufferedImage decoded;
+        try (InputStream in = image.getInputStream()) {
+            decoded = ImageIO.read(in);
+        }
+        if (decoded == null) throw new IllegalArgumentException("Unsupported image format");
+        bytesIn.record(image.getSize());
+
+        BufferedImage scaled = downscale(decoded, maxDimension);
+        double[] luma = lumaStats(scaled);
+        if (luma[0] < minMeanLuma) throw new IllegalArgumentException("Image is too dark to detect a face");
+        if (luma[1] < minLumaStdDev) throw new IllegalArgumentException("Image is blank");
+
+        if (scaled == decoded && isJpeg(image)) {
+            bytesOut.record(image.getSize());
+            return new UploadedImageResource(image);
+        }
+        byte[] encoded = encodeJpeg(scaled, jpegQuality);
+        bytesOut.record(encoded.length);
+        return new NamedByteArrayResource(encoded, "face.jpg");
+    }
+
+    /**
+     * Scales {@code image} so its longer edge is at most {@code maxDimension},
+     * halving in steps so bilinear filtering does not alias. Returns the image
+     * itself when it is already small enough and in a layout the JPEG writer
+     * takes; anything else (alpha, palettes) is redrawn as plain RGB.
+     */
+    public static BufferedImage downscale(BufferedImage image, int maxDimension) {
+        int longer = Math.max(image.getWidth(), image.getHeight());
+        if (longer <= maxDimension && isPlainRgb(image)) return image;
+
+        double scale = Math.min(1.0, (double) maxDimension / longer);
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * Mean and standard deviation of luma (0–255) over a grid of about
+     * 64×64 samples.
+     */
+    static double[] lumaStats(BufferedImage image) {
+        int stepX = Math.max(1, image.getWidth() / 64);
+        int stepY = Math.max(1, image.getHeight() / 64);
+        double sum = 0;
+        double sumSquares = 0;
+        int samples = 0;
+        for (int y = stepY / 2; y < image.getHeight(); y += stepY) {
+            for (int x = stepX / 2; x < image.getWidth(); x += stepX) {
+                int rgb = image.getRGB(x, y);
+                double luma = 0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF);
+                sum += luma;
+                sumSquares += luma * luma;
+                samples++;
+            }
+        }
+        double mean = sum / samples;
+        return new double[]{mean, Math.sqrt(Math.max(0, sumSquares / samples - mean * mean))};
+    }
+
+    public static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean isPlainRgb(BufferedImage image) {
+        return switch (image.getType()) {
+            case BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_BYTE_GRAY -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isJpeg(MultipartFile image) throws IOException {
+        try (InputStream in = image.getInputStream()) {
+            return in.read() == 0xFF && in.read() == 0xD8;
+        }
+    }
+
+    private static DistributionSummary bytesSummary(MeterRegistry registry, String stage) {
+        return DistributionSummary.builder("face.preprocess.bytes")
+                .description("Face image size before and after preprocessing")
+                .baseUnit("bytes")
+                .tag("stage", stage)
+                .register(registry);
+    }
+}
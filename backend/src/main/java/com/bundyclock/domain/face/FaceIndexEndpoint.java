@@ -0,0 +1,41 @@
+package com.bundyclock.domain.face;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint {@code /actuator/faceindex} describing the face gallery.
+ *
+ * <p>With {@code ?samples=N} and the HNSW matcher, it also runs a
+ * recall-vs-latency sweep over several {@code efSearch} values against exact
+ * search on the live gallery, which is what {@code app.face-recognition.hnsw.ef-search}
+ * should be tuned from.
+ */
+@Component
+@Endpoint(id = "faceindex")
+@RequiredArgsConstructor
+public class FaceIndexEndpoint {
+
+    private static final int[] EF_SEARCH_SWEEP = {16, 32, 64, 128, 256};
+    private static final int MAX_SAMPLES = 2_000;
+
+    private final FaceMatcher faceMatcher;
+
+    @ReadOperation
+    public Map<String, Object> faceIndex(@Nullable Integer samples) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("matcher", faceMatcher.getClass().getSimpleName());
+        info.put("size", faceMatcher.size());
+        if (samples != null && faceMatcher instanceof HnswFaceMatcher hnsw) {
+            int n = Math.max(1, Math.min(samples, MAX_SAMPLES));
+            info.put("recall", hnsw.evaluate(n, EF_SEARCH_SWEEP, System.nanoTime()));
+        }
+        return info;
+    }
+}
@@ -0,0 +1,193 @@
+package com.bundyclock.domain.face;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Binary snapshot of the face gallery, so a restart maps one file instead of
+ * re-reading every {@code face_embeddings} row.
+ *
+ * <p>Layout (little-endian): a 32-byte header — magic {@code BCFI}, format
+ * version, vector dimension, entry count, and the {@code updated_at} watermark
+ * in epoch microseconds — followed by fixed-size records of embedding id,
+ * employee id (two longs each) and {@code dimension} float32 components. Files
+ * are written to a temporary sibling and atomically moved into place; reads map
+ * the file with the Foreign Memory API and unmap it as soon as they finish.
+ */
+@Slf4j
+@Component
+public class FaceIndexSnapshot {
+
+    private static final int MAGIC = 0x49464342; // "BCFI"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int ID_BYTES = 2 * Long.BYTES;
+
+    private static final ValueLayout.OfInt INT =
+            ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG =
+            ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfFloat FLOAT =
+            ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final boolean enabled;
+    private final Path path;
+
+    public FaceIndexSnapshot(
+            @Value("${app.face-recognition.snapshot.enabled:true}") boolean enabled,
+            @Value("${app.face-recognition.snapshot.path:./data/face-index.snapshot}") String path) {
+        this.enabled = enabled;
+        this.path = Path.of(path);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Reads the {@code updated_at} watermark from the header, or empty if there is no readable snapshot. */
+    public Optional<Instant> watermark() {
+        if (!enabled || !Files.isRegularFile(path)) return Optional.empty();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.size() < HEADER_BYTES) return Optional.empty();
+            while (header.hasRemaining()) {
+                channel.read(header, header.position());
+            }
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                return Optional.empty();
+            }
+            return Optional.of(Instant.EPOCH.plus(header.getLong(16), ChronoUnit.MICROS));
+        } catch (IOException e) {
+            log.warn("Could not read face index snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Streams the snapshot's entries into {@code sink}, skipping ids rejected by {@code keep}.
+     *
+     * @return the snapshot's watermark, or empty if there is no readable snapshot
+     */
+    public Optional<Instant> restore(Predicate<UUID> keep, Consumer<GalleryEntry> sink) {
+        if (!enabled || !Files.isRegularFile(path)) return Optional.empty();
+        try (Arena arena = Arena.ofConfined();
+             FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            if (file.byteSize() < HEADER_BYTES
+                    || file.get(INT, 0) != MAGIC || file.get(INT, 4) != VERSION) {
+                log.warn("Ignoring face index snapshot {} — unknown format", path);
+                return Optional.empty();
+            }
+            int dimension = file.get(INT, 8);
+            int count = file.get(INT, 12);
+            long watermarkMicros = file.get(LONG, 16);
+            long recordBytes = ID_BYTES * 2L + (long) dimension * Float.BYTES;
+            if (file.byteSize() != HEADER_BYTES + recordBytes * count) {
+                log.warn("Ignoring face index snapshot {} — truncated", path);
+                return Optional.empty();
+            }
+
+            for (int i = 0; i < count; i++) {
+                long offset = HEADER_BYTES + recordBytes * i;
+                UUID embeddingId = new UUID(file.get(LONG, offset), file.get(LONG, offset + 8));
+                if (!keep.test(embeddingId)) continue;
+                UUID employeeId = new UUID(file.get(LONG, offset + 16), file.get(LONG, offset + 24));
+                float[] vector = new float[dimension];
+                MemorySegment.copy(file, FLOAT, offset + 2 * ID_BYTES, vector, 0, dimension);
+                sink.accept(new GalleryEntry(embeddingId, employeeId, vector));
+            }
+            return Optional.of(Instant.EPOCH.plus(watermarkMicros, ChronoUnit.MICROS));
+        } catch (IOException e) {
+            log.warn("Could not read face index snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes a new snapshot. {@code producer} receives a sink and pushes every
+     * entry into it; entries whose dimension differs from the first are dropped.
+     */
+    public void write(Instant watermark, Consumer<Consumer<GalleryEntry>> producer) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            RecordWriter writer = new RecordWriter(channel);
+            producer.accept(writer);
+            writer.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(Math.max(writer.dimension, 0)).putInt(writer.count)
+                    .putLong(ChronoUnit.MICROS.between(Instant.EPOCH, watermark));
+            header.flip();
+            channel.write(header, 0);
+            channel.force(true);
+            log.info("Face index snapshot written — {} vectors, watermark {}", writer.count, watermark);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Buffers fixed-size records after the reserved header. */
+    private static final class RecordWriter implements Consumer<GalleryEntry> {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private long position = HEADER_BYTES;
+        private int dimension = -1;
+        private int count;
+
+        RecordWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void accept(GalleryEntry entry) {
+            float[] vector = entry.vector();
+            if (dimension < 0) dimension = vector.length;
+            if (vector.length != dimension) return;
+            try {
+                int recordBytes = 2 * ID_BYTES + dimension * Float.BYTES;
+                if (buffer.remaining() < recordBytes) flush();
+                buffer.putLong(entry.embeddingId().getMostSignificantBits())
+                        .putLong(entry.embeddingId().getLeastSignificantBits())
+                        .putLong(entry.employeeId().getMostSignificantBits())
+                        .putLong(entry.employeeId().getLeastSignificantBits());
+                buffer.asFloatBuffer().put(vector);
+                buffer.position(buffer.position() + dimension * Float.BYTES);
+                count++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.bundyclock.domain.face;
+
+import java.util.UUID;
+
+/**
+ * Best gallery entry for a probe embedding.
+ *
+ * @param embeddingId id of the matching {@link FaceEmbedding} row
+ * @param employeeId  employee the embedding belongs to
+ * @param score       cosine similarity between probe and gallery vector
+ */
+public record FaceMatch(UUID embeddingId, UUID employeeId, float score) {
+}
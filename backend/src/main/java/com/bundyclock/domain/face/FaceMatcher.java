@@ -0,0 +1,34 @@
+package com.bundyclock.domain.face;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Nearest-neighbour search over the face embedding gallery.
+ *
+ * <p>All vectors handed to a matcher are already L2-normalised by
+ * {@link FaceEmbeddingIndex}, so implementations can use the plain dot
+ * product as cosine similarity. Implementations must be thread-safe.
+ */
+public interface FaceMatcher {
+
+    /**
+     * Adds a normalised vector to the gallery.
+     *
+     * @return {@code false} if the vector's dimension does not match the gallery
+     */
+    boolean add(UUID embeddingId, UUID employeeId, float[] vector);
+
+    /** Returns the gallery entry with the highest cosine similarity to the normalised probe. */
+    Optional<FaceMatch> findBest(float[] probe);
+
+    /**
+     * Removes every vector registered for the employee.
+     *
+     * @return number of vectors removed
+     */
+    int removeEmployee(UUID employeeId);
+
+    /** Number of vectors in the gallery. */
+    int size();
+}
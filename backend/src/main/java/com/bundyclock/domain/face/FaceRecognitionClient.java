@@ -0,0 +1,200 @@
+package com.bundyclock.domain.face;
+
+import com.bundyclock.common.exception.ServiceUnavailableException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client for the Python face-recognition service.
+ *
+ * <p>The service is only used to turn images into embedding vectors; matching
+ * against the gallery happens in the backend (see {@link FaceEmbeddingIndex}).
+ *
+ * <p>Request threads are virtual, so waiting on the service is cheap for the
+ * backend but not for the service itself: at most
+ * {@code app.face-recognition.http.max-in-flight} calls run at once, and a
+ * caller that cannot get a slot within {@code queue-timeout} fails with
+ * {@link ServiceUnavailableException} instead of piling up. In front of that
+ * bulkhead, a {@link FaceCircuitBreaker} refuses calls outright while the
+ * service is failing or slow, so callers do not spend the queue timeout, or
+ * the read timeout, on a service that is down. Errors reaching the service
+ * surface as {@link ServiceUnavailableException} too; a 4xx answer is the
+ * service working and is passed through.
+ *
+ * <p>Images are passed as {@link Resource}s and copied into the request body
+ * as it is written, so an upload forwarded unchanged is streamed from its
+ * temp file rather than read onto the heap first.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FaceRecognitionClient {
+
+    private final RestTemplate restTemplate;
+    private final FaceCircuitBreaker circuitBreaker;
+
+    @Value("${app.face-recognition.service-url}")
+    private String faceServiceUrl;
+
+    @Value("${app.face-recognition.represent-endpoint:/represent-face}")
+    private String representEndpoint;
+
+    @Value("${app.face-recognition.represent-batch-endpoint:/represent-faces}")
+    private String representBatchEndpoint;
+
+    @Value("${app.face-recognition.register-endpoint}")
+    private String registerEndpoint;
+
+    @Value("${app.face-recognition.http.queue-timeout:2s}")
+    private Duration queueTimeout;
+
+    private Semaphore inFlight;
+
+    @Value("${app.face-recognition.http.max-in-flight:16}")
+    void setMaxInFlight(int maxInFlight) {
+        this.inFlight = new Semaphore(maxInFlight, true);
+    }
+
+    /**
+     * Computes the embedding of a probe image, as prepared by {@link FaceImagePreprocessor}.
+     *
+     * @return the embedding, or {@code null} when no face was detected
+     */
+    @SuppressWarnings("unchecked")
+    public float[] represent(Resource image) {
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("image", image);
+
+        Map<String, Object> result = post(representEndpoint, body);
+        if (!Boolean.TRUE.equals(result.get("success"))) {
+            log.info("Face service returned no embedding: {}", result.get("message"));
+            return null;
+        }
+        return toFloatArray((List<Number>) result.get("embedding"));
+    }
+
+    /**
+     * Computes the embeddings of several probe images in one call, which the
+     * service runs through the model as a batch. Takes one in-flight slot.
+     *
+     * @return one embedding per image, in order; {@code null} where no face was detected
+     */
+    @SuppressWarnings("unchecked")
+    public List<float[]> representBatch(List<Resource> images) {
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        images.forEach(image -> body.add("images", image));
+
+        Map<String, Object> result = post(representBatchEndpoint, body);
+        List<Map<String, Object>> results = (List<Map<String, Object>>) result.get("results");
+        if (results == null || results.size() != images.size()) {
+            throw new RuntimeException("Face service returned " + (results == null ? 0 : results.size())
+                    + " embeddings for " + images.size() + " images");
+        }
+        List<float[]> embeddings = new ArrayList<>(results.size());
+        for (Map<String, Object> item : results) {
+            embeddings.add(Boolean.TRUE.equals(item.get("success"))
+                    ? toFloatArray((List<Number>) item.get("embedding"))
+                    : null);
+        }
+        return embeddings;
+    }
+
+    /**
+     * Registers a face image with the face service.
+     *
+     * @throws IllegalArgumentException when no face was detected in the image
+     */
+    @SuppressWarnings("unchecked")
+    public RegisteredFace register(UUID employeeId, Resource image) {
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("employee_id", employeeId.toString());
+        body.add("image", image);
+
+        Map<String, Object> result = post(registerEndpoint, body);
+        String message = (String) result.get("message");
+        if (!Boolean.TRUE.equals(result.get("success"))) {
+            throw new IllegalArgumentException(message != null ? message : "Face not detected in image");
+        }
+        return new RegisteredFace(
+                (String) result.get("embedding_path"),
+                toFloatArray((List<Number>) result.get("embedding")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> post(String endpoint, MultiValueMap<String, Object> body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+
+        circuitBreaker.acquirePermission();
+        try {
+            acquireSlot();
+        } catch (ServiceUnavailableException e) {
+            circuitBreaker.onCancelled();
+            throw e;
+        }
+        long start = System.nanoTime();
+        try {
+            ResponseEntity<Map> response = restTemplate.postForEntity(
+                    faceServiceUrl + endpoint,
+                    new HttpEntity<>(body, headers),
+                    Map.class);
+
+            Map<String, Object> result = response.getBody();
+            if (result == null) throw new RestClientException("Empty response from face service");
+            circuitBreaker.onSuccess(Duration.ofNanos(System.nanoTime() - start));
+            return result;
+        } catch (HttpClientErrorException e) {
+            circuitBreaker.onSuccess(Duration.ofNanos(System.nanoTime() - start));
+            throw e;
+        } catch (RestClientException e) {
+            circuitBreaker.onFailure();
+            throw new ServiceUnavailableException("Face recognition service failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            circuitBreaker.onCancelled();
+            throw e;
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private void acquireSlot() {
+        try {
+            if (!inFlight.tryAcquire(queueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ServiceUnavailableException("Face recognition service is busy, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the face recognition service");
+        }
+    }
+
+    private static float[] toFloatArray(List<Number> values) {
+        if (values == null) return null;
+        float[] vector = new float[values.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = values.get(i).floatValue();
+        }
+        return vector;
+    }
+
+    /** Result of a successful registration call. */
+    public record RegisteredFace(String embeddingPath, float[] embedding) {
+    }
+}
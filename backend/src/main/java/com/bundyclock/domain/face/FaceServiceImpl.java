@@ -1,19 +1,20 @@
 package com.bundyclock.domain.face;
 
+import com.bundyclock.common.exception.ResourceNotFoundException;
+import com.bundyclock.common.exception.ServiceUnavailableException;
+import com.bundyclock.domain.employee.Employee;
+import com.bundyclock.domain.employee.EmployeeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
-import java.util.Map;
+import java.math.RoundingMode;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -23,53 +24,68 @@ import java.util.UUID;
 public class FaceServiceImpl implements FaceService {
 
     private final FaceEmbeddingRepository faceEmbeddingRepository;
-    private final RestTemplate restTemplate;
-
-    @Value("${app.face-recognition.service-url}")
-    private String faceServiceUrl;
-
-    @Value("${app.face-recognition.verify-endpoint}")
-    private String verifyEndpoint;
-
-    @Value("${app.face-recognition.register-endpoint}")
-    private String registerEndpoint;
-
+    private final FaceRecognitionClient faceRecognitionClient;
+    private final FaceEmbeddingBatcher faceEmbeddingBatcher;
+    private final FaceImagePreprocessor faceImagePreprocessor;
+    private final FaceEmbeddingIndex faceEmbeddingIndex;
+    private final EmployeeService employeeService;
+
+    @Value("${app.face-recognition.confidence-threshold:0.6}")
+    private double confidenceThreshold;
+
+    // verify and registerFace run outside a transaction: holding a pooled JDBC connection
+    // across the face-service round trip would cap throughput at the pool size.
+
+    /**
+     * While the face service is unavailable, or its circuit is open, this
+     * fails fast with {@link ServiceUnavailableException} (503 and
+     * {@code Retry-After}) for the kiosk to retry.
+     */
     @Override
-    @SuppressWarnings("unchecked")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FaceVerifyResult verify(MultipartFile image) {
-        log.info("Forwarding image to face recognition service for verification");
+        log.info("Requesting probe embedding from face recognition service");
         try {
-            MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-            body.add("image", new NamedByteArrayResource(image.getBytes(),
-                    image.getOriginalFilename() != null ? image.getOriginalFilename() : "face.jpg"));
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                    faceServiceUrl + verifyEndpoint,
-                    new HttpEntity<>(body, headers),
-                    Map.class);
-
-            Map<String, Object> result = response.getBody();
-            if (result == null) throw new RuntimeException("Empty response from face service");
+            float[] probe = faceEmbeddingBatcher.represent(image);
+            if (probe == null) {
+                return FaceVerifyResult.builder()
+                        .matched(false)
+                        .message("No face detected in the probe image.")
+                        .build();
+            }
 
-            boolean matched = Boolean.TRUE.equals(result.get("matched"));
-            String empIdStr = (String) result.get("employee_id");
-            Number score = (Number) result.get("confidence_score");
-            String message = (String) result.get("message");
+            Optional<FaceMatch> best = faceEmbeddingIndex.findBest(probe);
+            boolean matched = best.isPresent() && best.get().score() >= confidenceThreshold;
+            BigDecimal score = best
+                    .map(m -> BigDecimal.valueOf(m.score()).setScale(4, RoundingMode.HALF_UP))
+                    .orElse(null);
 
-            log.info("Verification — matched={}, employee={}, score={}", matched, empIdStr, score);
+            log.info("Verification — matched={}, employee={}, score={}",
+                    matched, best.map(FaceMatch::employeeId).orElse(null), score);
 
+            // Name and department for the kiosk display; served from the employee cache.
+            Employee employee = matched ? findEmployee(best.get().employeeId()) : null;
             return FaceVerifyResult.builder()
                     .matched(matched)
-                    .employeeId(empIdStr != null ? UUID.fromString(empIdStr) : null)
-                    .confidenceScore(score != null ? new BigDecimal(score.toString()) : null)
-                    .message(message)
+                    .employeeId(matched ? best.get().employeeId() : null)
+                    .employeeName(employee != null ? employee.getName() : null)
+                    .department(employee != null ? employee.getDepartment() : null)
+                    .confidenceScore(score)
+                    .message(matched ? "Match found." : "No match found.")
                     .build();
 
+        } catch (ServiceUnavailableException e) {
+            throw e;
+        } catch (IllegalArgumentException e) {
+            // Turned away by preprocessing (dark, blank or undecodable frame); the service was not called.
+            log.info("Probe image rejected: {}", e.getMessage());
+            return FaceVerifyResult.builder()
+                    .matched(false)
+                    .message(e.getMessage())
+                    .build();
         } catch (Exception e) {
-            log.error("Face verification call failed: {}", e.getMessage(), e);
+            // The service answered, but not with an embedding (a 4xx or a malformed body).
+            log.warn("Face verification call failed: {}", e.getMessage());
             return FaceVerifyResult.builder()
                     .matched(false)
                     .message("Face recognition service unavailable: " + e.getMessage())
@@ -78,43 +94,26 @@ public class FaceServiceImpl implements FaceService {
     }
 
     @Override
-    @Transactional
-    @SuppressWarnings("unchecked")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FaceEmbedding registerFace(UUID employeeId, MultipartFile image) {
         log.info("Forwarding image to face recognition service for registration — employee={}", employeeId);
         try {
-            MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-            body.add("employee_id", employeeId.toString());
-            body.add("image", new NamedByteArrayResource(image.getBytes(),
-                    image.getOriginalFilename() != null ? image.getOriginalFilename() : "face.jpg"));
+            FaceRecognitionClient.RegisteredFace registered = faceRecognitionClient.register(
+                    employeeId, faceImagePreprocessor.prepare(image));
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                    faceServiceUrl + registerEndpoint,
-                    new HttpEntity<>(body, headers),
-                    Map.class);
-
-            Map<String, Object> result = response.getBody();
-            if (result == null) throw new RuntimeException("Empty response from face service");
-
-            Boolean success = (Boolean) result.get("success");
-            String message = (String) result.get("message");
-            String embeddingPath = (String) result.get("embedding_path");
-
-            if (!Boolean.TRUE.equals(success)) {
-                throw new IllegalArgumentException(message != null ? message : "Face not detected in image");
-            }
-
-            log.info("Face registered for employee={}, path={}", employeeId, embeddingPath);
+            log.info("Face registered for employee={}, path={}", employeeId, registered.embeddingPath());
 
             FaceEmbedding embedding = FaceEmbedding.builder()
                     .employeeId(employeeId)
-                    .rawImagePath(embeddingPath)
+                    .embedding(registered.embedding())
+                    .rawImagePath(registered.embeddingPath())
                     .modelUsed("DeepFace")
                     .build();
-            return faceEmbeddingRepository.save(embedding);
+            FaceEmbedding saved = faceEmbeddingRepository.save(embedding);
+            if (registered.embedding() != null) {
+                faceEmbeddingIndex.add(saved.getId(), employeeId, registered.embedding());
+            }
+            return saved;
 
         } catch (RuntimeException e) {
             throw e;
@@ -124,18 +123,12 @@ public class FaceServiceImpl implements FaceService {
         }
     }
 
-    /** ByteArrayResource with a filename so RestTemplate sends a proper multipart part. */
-    private static class NamedByteArrayResource extends ByteArrayResource {
-        private final String filename;
-
-        NamedByteArrayResource(byte[] byteArray, String filename) {
-            super(byteArray);
-            this.filename = filename;
-        }
-
-        @Override
-        public String getFilename() {
-            return filename;
+    /** The matched employee, or {@code null} if it was deleted since the gallery was loaded. */
+    private Employee findEmployee(UUID employeeId) {
+        try {
+            return employeeService.getEmployeeById(employeeId);
+        } catch (ResourceNotFoundException e) {
+            return null;
         }
     }
 }
@@ -0,0 +1,20 @@
+package com.bundyclock.domain.face;
+
+/** Small helpers for embedding vectors. */
+final class FaceVectors {
+
+    private FaceVectors() {
+    }
+
+    /** Returns an L2-normalised copy, or {@code null} for an empty or zero vector. */
+    static float[] normalize(float[] vector) {
+        if (vector == null || vector.length == 0) return null;
+        double norm = 0;
+        for (float v : vector) norm += (double) v * v;
+        if (norm == 0) return null;
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        float[] result = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) result[i] = vector[i] * inv;
+        return result;
+    }
+}
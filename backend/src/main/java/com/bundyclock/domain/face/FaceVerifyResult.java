@@ -15,6 +15,8 @@ import java.util.UUID;
 public class FaceVerifyResult {
 
     private UUID employeeId;
+    private String employeeName;
+    private String department;
     private BigDecimal confidenceScore;
     private boolean matched;
     private String message;
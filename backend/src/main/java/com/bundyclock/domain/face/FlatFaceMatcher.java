@@ -0,0 +1,111 @@
+package com.bundyclock.domain.face;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Exact matcher that keeps the whole gallery in one contiguous {@code float[]}
+ * (row {@code i} starts at {@code i * dimension}) and scans it linearly.
+ * Subclasses only supply the dot-product kernel.
+ */
+public abstract class FlatFaceMatcher implements FaceMatcher {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int dimension;
+    private int size;
+    private float[] vectors = new float[0];
+    private UUID[] embeddingIds = new UUID[0];
+    private UUID[] employeeIds = new UUID[0];
+
+    /** Dot product of {@code query} with the gallery row starting at {@code offset}. */
+    protected abstract float dot(float[] query, float[] gallery, int offset, int length);
+
+    @Override
+    public boolean add(UUID embeddingId, UUID employeeId, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (size == 0) {
+                dimension = vector.length;
+                vectors = new float[embeddingIds.length * dimension];
+            } else if (vector.length != dimension) {
+                return false;
+            }
+            ensureCapacity(size + 1);
+            System.arraycopy(vector, 0, vectors, size * dimension, dimension);
+            embeddingIds[size] = embeddingId;
+            employeeIds[size] = employeeId;
+            size++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<FaceMatch> findBest(float[] probe) {
+        lock.readLock().lock();
+        try {
+            if (size == 0 || probe.length != dimension) return Optional.empty();
+            int best = -1;
+            float bestScore = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < size; i++) {
+                float score = dot(probe, vectors, i * dimension, dimension);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = i;
+                }
+            }
+            return Optional.of(new FaceMatch(embeddingIds[best], employeeIds[best], bestScore));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int removeEmployee(UUID employeeId) {
+        lock.writeLock().lock();
+        try {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (employeeId.equals(employeeIds[i])) continue;
+                if (kept != i) {
+                    System.arraycopy(vectors, i * dimension, vectors, kept * dimension, dimension);
+                    embeddingIds[kept] = embeddingIds[i];
+                    employeeIds[kept] = employeeIds[i];
+                }
+                kept++;
+            }
+            int removed = size - kept;
+            Arrays.fill(embeddingIds, kept, size, null);
+            Arrays.fill(employeeIds, kept, size, null);
+            size = kept;
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= embeddingIds.length) return;
+        int capacity = Math.max(INITIAL_CAPACITY, embeddingIds.length * 2);
+        vectors = Arrays.copyOf(vectors, capacity * dimension);
+        embeddingIds = Arrays.copyOf(embeddingIds, capacity);
+        employeeIds = Arrays.copyOf(employeeIds, capacity);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bundyclock.domain.face;
+
+import java.util.UUID;
+
+/** Projection of a {@link FaceEmbedding} row used to load the in-memory gallery. */
+public record GalleryEntry(UUID embeddingId, UUID employeeId, float[] vector) {
+}
@@ -0,0 +1,375 @@
+package com.bundyclock.domain.face;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Approximate matcher backed by a Hierarchical Navigable Small World graph
+ * (Malkov &amp; Yashunin, 2016).
+ *
+ * <p>Each node links to at most {@code m} neighbours per upper layer and
+ * {@code 2 * m} on layer 0. Inserts are incremental; deletes are tombstones —
+ * removed nodes keep routing searches but are never returned, and the graph
+ * is rebuilt without them on the next restart.
+ *
+ * <p>Tuning: {@code m} and {@code efConstruction} trade memory and insert time
+ * for graph quality, {@code efSearch} trades query latency for recall. Use
+ * {@link #evaluate(int, int[], long)} to measure recall against exact search.
+ */
+public class HnswFaceMatcher implements FaceMatcher {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final int efSearch;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int dimension;
+    private int size;
+    private int live;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private float[] vectors = new float[0];
+    private UUID[] embeddingIds = new UUID[0];
+    private UUID[] employeeIds = new UUID[0];
+    /** {@code links[node][level]} holds the neighbour count at index 0 followed by neighbour ids. */
+    private int[][][] links = new int[0][][];
+    private final BitSet deleted = new BitSet();
+    private final Map<UUID, List<Integer>> nodesByEmployee = new HashMap<>();
+
+    public HnswFaceMatcher(int m, int efConstruction, int efSearch) {
+        if (m < 2) throw new IllegalArgumentException("HNSW m must be at least 2");
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.efSearch = Math.max(efSearch, 1);
+        this.levelMultiplier = 1.0 / Math.log(m);
+    }
+
+    @Override
+    public boolean add(UUID embeddingId, UUID employeeId, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (size == 0) {
+                dimension = vector.length;
+                vectors = new float[embeddingIds.length * dimension];
+            } else if (vector.length != dimension) {
+                return false;
+            }
+            ensureCapacity(size + 1);
+            int node = size++;
+            System.arraycopy(vector, 0, vectors, node * dimension, dimension);
+            embeddingIds[node] = embeddingId;
+            employeeIds[node] = employeeId;
+            nodesByEmployee.computeIfAbsent(employeeId, k -> new ArrayList<>()).add(node);
+            live++;
+
+            int level = randomLevel();
+            links[node] = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                links[node][l] = new int[(l == 0 ? maxM0 : m) + 1];
+            }
+
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return true;
+            }
+
+            int ep = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                ep = greedyClosest(vectors, node * dimension, ep, l);
+            }
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                List<Candidate> candidates = searchLayer(vectors, node * dimension, ep, efConstruction, l);
+                List<Candidate> neighbours = selectNeighbours(candidates, m);
+                for (Candidate neighbour : neighbours) {
+                    link(node, neighbour.node(), l);
+                    link(neighbour.node(), node, l);
+                }
+                ep = candidates.get(0).node();
+            }
+            if (level > maxLevel) {
+                maxLevel = level;
+                entryPoint = node;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<FaceMatch> findBest(float[] probe) {
+        lock.readLock().lock();
+        try {
+            if (live == 0 || probe.length != dimension) return Optional.empty();
+            int best = search(probe, efSearch);
+            if (best < 0) best = exactBest(probe);
+            return Optional.of(new FaceMatch(embeddingIds[best], employeeIds[best],
+                    similarity(probe, 0, best)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int removeEmployee(UUID employeeId) {
+        lock.writeLock().lock();
+        try {
+            List<Integer> nodes = nodesByEmployee.remove(employeeId);
+            if (nodes == null) return 0;
+            for (int node : nodes) {
+                deleted.set(node);
+            }
+            live -= nodes.size();
+            return nodes.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Measures recall@1 and latency against exact search for several {@code efSearch}
+     * values. Probes are stored vectors with a little Gaussian noise, which mimics a
+     * fresh capture of an enrolled face.
+     */
+    public List<RecallPoint> evaluate(int samples, int[] efSearchValues, long seed) {
+        lock.readLock().lock();
+        try {
+            if (live == 0) return List.of();
+            Random rnd = new Random(seed);
+            float[][] probes = new float[samples][];
+            int[] expected = new int[samples];
+            for (int s = 0; s < samples; s++) {
+                int node;
+                do {
+                    node = rnd.nextInt(size);
+                } while (deleted.get(node));
+                probes[s] = noisyCopy(node, rnd);
+                expected[s] = exactBest(probes[s]);
+            }
+
+            List<RecallPoint> report = new ArrayList<>();
+            for (int ef : efSearchValues) {
+                long[] nanos = new long[samples];
+                int hits = 0;
+                for (int s = 0; s < samples; s++) {
+                    long start = System.nanoTime();
+                    int found = search(probes[s], ef);
+                    nanos[s] = System.nanoTime() - start;
+                    if (found == expected[s]) hits++;
+                }
+                Arrays.sort(nanos);
+                double meanMicros = Arrays.stream(nanos).average().orElse(0) / 1_000.0;
+                double p99Micros = nanos[Math.min(samples - 1, (int) Math.ceil(samples * 0.99) - 1)] / 1_000.0;
+                report.add(new RecallPoint(ef, (double) hits / samples, meanMicros, p99Micros));
+            }
+            return report;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** One row of the recall-vs-latency report. */
+    public record RecallPoint(int efSearch, double recall, double meanMicros, double p99Micros) {
+    }
+
+    // -------------------------------------------------------------------------
+    // Graph search
+    // -------------------------------------------------------------------------
+
+    /** Best live node for the probe, or -1 if every candidate found was deleted. */
+    private int search(float[] probe, int ef) {
+        int ep = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            ep = greedyClosest(probe, 0, ep, l);
+        }
+        for (Candidate candidate : searchLayer(probe, 0, ep, Math.max(ef, 1), 0)) {
+            if (!deleted.get(candidate.node())) return candidate.node();
+        }
+        return -1;
+    }
+
+    private int greedyClosest(float[] query, int offset, int ep, int level) {
+        int current = ep;
+        float best = similarity(query, offset, current);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] neighbours = links[current][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int candidate = neighbours[i];
+                float score = similarity(query, offset, candidate);
+                if (score > best) {
+                    best = score;
+                    current = candidate;
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /** Beam search on one layer; returns up to {@code ef} candidates, most similar first. */
+    private List<Candidate> searchLayer(float[] query, int offset, int ep, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(Candidate.BEST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(Candidate.WORST_FIRST);
+
+        Candidate start = new Candidate(ep, similarity(query, offset, ep));
+        visited.set(ep);
+        frontier.add(start);
+        results.add(start);
+
+        while (!frontier.isEmpty()) {
+            Candidate current = frontier.poll();
+            if (results.size() >= ef && current.score() < results.peek().score()) break;
+
+            int[] neighbours = links[current.node()][level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int n = neighbours[i];
+                if (visited.get(n)) continue;
+                visited.set(n);
+                float score = similarity(query, offset, n);
+                if (results.size() < ef || score > results.peek().score()) {
+                    Candidate candidate = new Candidate(n, score);
+                    frontier.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) results.poll();
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(Candidate.BEST_FIRST);
+        return sorted;
+    }
+
+    /**
+     * Neighbour-selection heuristic: keep a candidate only if it is closer to the
+     * base than to every neighbour already kept, which spreads links across
+     * clusters. Pruned candidates fill any remaining slots.
+     */
+    private List<Candidate> selectNeighbours(List<Candidate> candidates, int max) {
+        List<Candidate> selected = new ArrayList<>(max);
+        List<Candidate> pruned = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (selected.size() >= max) break;
+            boolean keep = true;
+            for (Candidate s : selected) {
+                if (similarity(vectors, candidate.node() * dimension, s.node()) > candidate.score()) {
+                    keep = false;
+                    break;
+                }
+            }
+            if (keep) selected.add(candidate);
+            else pruned.add(candidate);
+        }
+        for (int i = 0; i < pruned.size() && selected.size() < max; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected;
+    }
+
+    private void link(int from, int to, int level) {
+        int[] neighbours = links[from][level];
+        int capacity = neighbours.length - 1;
+        if (neighbours[0] < capacity) {
+            neighbours[++neighbours[0]] = to;
+            return;
+        }
+        List<Candidate> candidates = new ArrayList<>(capacity + 1);
+        int base = from * dimension;
+        for (int i = 1; i <= capacity; i++) {
+            candidates.add(new Candidate(neighbours[i], similarity(vectors, base, neighbours[i])));
+        }
+        candidates.add(new Candidate(to, similarity(vectors, base, to)));
+        candidates.sort(Candidate.BEST_FIRST);
+        List<Candidate> kept = selectNeighbours(candidates, capacity);
+        neighbours[0] = kept.size();
+        for (int i = 0; i < kept.size(); i++) {
+            neighbours[i + 1] = kept.get(i).node();
+        }
+    }
+
+    private int exactBest(float[] probe) {
+        int best = -1;
+        float bestScore = Float.NEGATIVE_INFINITY;
+        for (int node = 0; node < size; node++) {
+            if (deleted.get(node)) continue;
+            float score = similarity(probe, 0, node);
+            if (score > bestScore) {
+                bestScore = score;
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private float similarity(float[] query, int offset, int node) {
+        int base = node * dimension;
+        float sum = 0f;
+        for (int i = 0; i < dimension; i++) {
+            sum += query[offset + i] * vectors[base + i];
+        }
+        return sum;
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+    }
+
+    private float[] noisyCopy(int node, Random rnd) {
+        float[] probe = Arrays.copyOfRange(vectors, node * dimension, (node + 1) * dimension);
+        double sigma = 0.25 / Math.sqrt(dimension);
+        for (int i = 0; i < dimension; i++) {
+            probe[i] += (float) (rnd.nextGaussian() * sigma);
+        }
+        return FaceVectors.normalize(probe);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= embeddingIds.length) return;
+        int capacity = Math.max(INITIAL_CAPACITY, embeddingIds.length * 2);
+        vectors = Arrays.copyOf(vectors, capacity * dimension);
+        embeddingIds = Arrays.copyOf(embeddingIds, capacity);
+        employeeIds = Arrays.copyOf(employeeIds, capacity);
+        links = Arrays.copyOf(links, capacity);
+    }
+
+    private record Candidate(int node, float score) {
+        static final Comparator<Candidate> BEST_FIRST = Comparator.comparingDouble(Candidate::score).reversed();
+        static final Comparator<Candidate> WORST_FIRST = Comparator.comparingDouble(Candidate::score);
+    }
+}
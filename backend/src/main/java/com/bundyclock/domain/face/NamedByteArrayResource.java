@@ -0,0 +1,19 @@
+package com.bundyclock.domain.face;
+
+import org.springframework.core.io.ByteArrayResource;
+
+/** ByteArrayResource with a filename so RestTemplate sends a proper multipart part. */
+class NamedByteArrayResource extends ByteArrayResource {
+
+    private final String filename;
+
+    NamedByteArrayResource(byte[] byteArray, String filename) {
+        super(byteArray);
+        this.filename = filename;
+    }
+
+    @Override
+    public String getFilename() {
+        return filename;
+    }
+}
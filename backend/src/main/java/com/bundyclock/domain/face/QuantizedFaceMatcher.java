@@ -0,0 +1,191 @@
+package com.bundyclock.domain.face;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Exact-reranked matcher over an int8 scalar-quantised gallery.
+ *
+ * <p>Each normalised vector is stored as {@code dimension} signed bytes plus one
+ * float scale ({@code 127 / max|x|}), a quarter of the float32 footprint. A
+ * probe is scanned against the codes with integer dot products, then the best
+ * {@code rerankK} candidates — widened to every candidate whose approximate
+ * score is within {@code tolerance} of the best, up to {@code 4 * rerankK} — are
+ * re-scored with their full-precision vectors from an {@link EmbeddingVectorSource}.
+ * The returned score is therefore exact whenever the true best is among them.
+ */
+public class QuantizedFaceMatcher implements FaceMatcher {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final EmbeddingVectorSource vectorSource;
+    private final int rerankK;
+    private final int maxRerank;
+    private final float tolerance;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int dimension;
+    private int size;
+    private byte[] codes = new byte[0];
+    private float[] scales = new float[0];
+    private UUID[] embeddingIds = new UUID[0];
+    private UUID[] employeeIds = new UUID[0];
+
+    public QuantizedFaceMatcher(EmbeddingVectorSource vectorSource, int rerankK, float tolerance) {
+        this.vectorSource = vectorSource;
+        this.rerankK = Math.max(rerankK, 1);
+        this.maxRerank = this.rerankK * 4;
+        this.tolerance = Math.max(tolerance, 0f);
+    }
+
+    @Override
+    public boolean add(UUID embeddingId, UUID employeeId, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (size == 0) {
+                dimension = vector.length;
+                codes = new byte[embeddingIds.length * dimension];
+            } else if (vector.length != dimension) {
+                return false;
+            }
+            ensureCapacity(size + 1);
+            scales[size] = quantize(vector, codes, size * dimension);
+            embeddingIds[size] = embeddingId;
+            employeeIds[size] = employeeId;
+            size++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<FaceMatch> findBest(float[] probe) {
+        List<FaceMatch> candidates;
+        lock.readLock().lock();
+        try {
+            if (size == 0 || probe.length != dimension) return Optional.empty();
+            candidates = approximateTop(probe);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return rerank(probe, candidates);
+    }
+
+    @Override
+    public int removeEmployee(UUID employeeId) {
+        lock.writeLock().lock();
+        try {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (employeeId.equals(employeeIds[i])) continue;
+                if (kept != i) {
+                    System.arraycopy(codes, i * dimension, codes, kept * dimension, dimension);
+                    scales[kept] = scales[i];
+                    embeddingIds[kept] = embeddingIds[i];
+                    employeeIds[kept] = employeeIds[i];
+                }
+                kept++;
+            }
+            int removed = size - kept;
+            Arrays.fill(embeddingIds, kept, size, null);
+            Arrays.fill(employeeIds, kept, size, null);
+            size = kept;
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Candidates for reranking, most similar first by approximate score. */
+    private List<FaceMatch> approximateTop(float[] probe) {
+        byte[] query = new byte[dimension];
+        float queryScale = quantize(probe, query, 0);
+
+        PriorityQueue<FaceMatch> top = new PriorityQueue<>(maxRerank + 1,
+                (a, b) -> Float.compare(a.score(), b.score()));
+        for (int i = 0; i < size; i++) {
+            float score = dot(query, i * dimension) / (queryScale * scales[i]);
+            if (top.size() < maxRerank) {
+                top.add(new FaceMatch(embeddingIds[i], employeeIds[i], score));
+            } else if (score > top.peek().score()) {
+                top.poll();
+                top.add(new FaceMatch(embeddingIds[i], employeeIds[i], score));
+            }
+        }
+
+        List<FaceMatch> candidates = new ArrayList<>(top);
+        candidates.sort((a, b) -> Float.compare(b.score(), a.score()));
+        float cutoff = candidates.get(0).score() - tolerance;
+        int keep = rerankK;
+        while (keep < candidates.size() && candidates.get(keep).score() >= cutoff) keep++;
+        return candidates.subList(0, Math.min(keep, candidates.size()));
+    }
+
+    private Optional<FaceMatch> rerank(float[] probe, List<FaceMatch> candidates) {
+        Map<UUID, float[]> exact = vectorSource.load(candidates.stream().map(FaceMatch::embeddingId).toList());
+        FaceMatch best = null;
+        for (FaceMatch candidate : candidates) {
+            float[] vector = FaceVectors.normalize(exact.get(candidate.embeddingId()));
+            FaceMatch scored = vector != null && vector.length == probe.length
+                    ? new FaceMatch(candidate.embeddingId(), candidate.employeeId(), dot(probe, vector))
+                    : candidate;
+            if (best == null || scored.score() > best.score()) best = scored;
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private int dot(byte[] query, int offset) {
+        int sum = 0;
+        for (int i = 0; i < dimension; i++) {
+            sum += query[i] * codes[offset + i];
+        }
+        return sum;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /** Writes the int8 codes of {@code vector} into {@code target} and returns the scale used. */
+    private static float quantize(float[] vector, byte[] target, int offset) {
+        float max = 0f;
+        for (float v : vector) max = Math.max(max, Math.abs(v));
+        float scale = max == 0f ? 1f : 127f / max;
+        for (int i = 0; i < vector.length; i++) {
+            target[offset + i] = (byte) Math.round(vector[i] * scale);
+        }
+        return scale;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= embeddingIds.length) return;
+        int capacity = Math.max(INITIAL_CAPACITY, embeddingIds.length * 2);
+        codes = Arrays.copyOf(codes, capacity * dimension);
+        scales = Arrays.copyOf(scales, capacity);
+        embeddingIds = Arrays.copyOf(embeddingIds, capacity);
+        employeeIds = Arrays.copyOf(employeeIds, capacity);
+    }
+}
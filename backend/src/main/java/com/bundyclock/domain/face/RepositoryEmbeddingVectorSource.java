@@ -0,0 +1,28 @@
+package com.bundyclock.domain.face;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/** Loads full-precision vectors from {@code face_embeddings} by primary key. */
+@Component
+@RequiredArgsConstructor
+public class RepositoryEmbeddingVectorSource implements EmbeddingVectorSource {
+
+    private final FaceEmbeddingRepository faceEmbeddingRepository;
+
+    @Override
+    public Map<UUID, float[]> load(Collection<UUID> embeddingIds) {
+        Map<UUID, float[]> vectors = new HashMap<>();
+        for (FaceEmbedding embedding : faceEmbeddingRepository.findAllById(embeddingIds)) {
+            if (embedding.getEmbedding() != null) {
+                vectors.put(embedding.getId(), embedding.getEmbedding());
+            }
+        }
+        return vectors;
+    }
+}
@@ -0,0 +1,14 @@
+package com.bundyclock.domain.face;
+
+/** Flat matcher with a plain scalar dot-product loop. Works on every JVM. */
+public class ScalarFaceMatcher extends FlatFaceMatcher {
+
+    @Override
+    protected float dot(float[] query, float[] gallery, int offset, int length) {
+        float sum = 0f;
+        for (int i = 0; i < length; i++) {
+            sum += query[i] * gallery[offset + i];
+        }
+        return sum;
+    }
+}
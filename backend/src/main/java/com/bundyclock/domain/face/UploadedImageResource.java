@@ -0,0 +1,48 @@
+package com.bundyclock.domain.face;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An uploaded image sent on to the face service as it is, read from the
+ * servlet part (its temp file, with the default zero
+ * {@code file-size-threshold}) while the outbound request is written. The
+ * known size lets the converter skip reading the stream to measure it, and
+ * the upload is never copied onto the heap.
+ */
+class UploadedImageResource extends AbstractResource {
+
+    private final MultipartFile upload;
+
+    UploadedImageResource(MultipartFile upload) {
+        this.upload = upload;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return upload.getInputStream();
+    }
+
+    @Override
+    public long contentLength() {
+        return upload.getSize();
+    }
+
+    @Override
+    public String getFilename() {
+        return upload.getOriginalFilename() != null ? upload.getOriginalFilename() : "face.jpg";
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public String getDescription() {
+        return "uploaded image [" + getFilename() + "]";
+    }
+}
@@ -0,0 +1,35 @@
+package com.bundyclock.domain.face;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Flat matcher whose dot-product kernel uses the JDK Vector API, so each
+ * iteration multiplies a full SIMD register of floats.
+ *
+ * <p>Requires {@code --add-modules jdk.incubator.vector} at runtime — the
+ * class cannot even be loaded without it, so {@code FaceMatcherConfig} checks
+ * for the module before instantiating it.
+ */
+public class VectorizedFaceMatcher extends FlatFaceMatcher {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    protected float dot(float[] query, float[] gallery, int offset, int length) {
+        FloatVector acc = FloatVector.zero(SPECIES);
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            FloatVector q = FloatVector.fromArray(SPECIES, query, i);
+            FloatVector g = FloatVector.fromArray(SPECIES, gallery, offset + i);
+            acc = q.fma(g, acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += query[i] * gallery[offset + i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,95 @@
+package com.bundyclock.storage;
+
+import com.bundyclock.domain.face.FaceImagePreprocessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Moves older images in the {@link ImageStore} to the cold tier.
+ *
+ * <p>Nightly, every image still in the hot tier and older than
+ * {@code app.storage.recompress.older-than} is scaled down so its longer edge
+ * is at most {@code max-dimension} and re-encoded as JPEG at
+ * {@code jpeg-quality}. The smaller of the two encodings is kept, so the
+ * image is visited once either way. Audit images are only ever looked at by
+ * a person, and at that size a face is still plainly recognisable.
+ */
+@Slf4j
+@Component
+public class ImageRecompressionJob {
+
+    private final ImageStore imageStore;
+    private final boolean enabled;
+    private final Duration olderThan;
+    private final int maxDimension;
+    private final float jpegQuality;
+
+    public ImageRecompressionJob(
+            ImageStore imageStore,
+            @Value("${app.storage.recompress.enabled:true}") boolean enabled,
+            @Value("${app.storage.recompress.older-than:30d}") Duration olderThan,
+            @Value("${app.storage.recompress.max-dimension:480}") int maxDimension,
+            @Value("${app.storage.recompress.jpeg-quality:0.6}") float jpegQuality) {
+        this.imageStore = imageStore;
+        this.enabled = enabled;
+        this.olderThan = olderThan;
+        this.maxDimension = maxDimension;
+        this.jpegQuality = jpegQuality;
+    }
+
+    @Scheduled(cron = "${app.storage.recompress.cron:0 0 3 * * *}")
+    public void recompress() {
+        if (!enabled) return;
+        Instant cutoff = Instant.now().minus(olderThan);
+        int visited = 0;
+        long saved = 0;
+        try (Stream<StoredImage> images = imageStore.list()) {
+            Iterator<StoredImage> it = images
+                    .filter(image -> image.tier() == StoredImage.Tier.HOT && image.lastModified().isBefore(cutoff))
+                    .iterator();
+            while (it.hasNext()) {
+                StoredImage image = it.next();
+                try {
+                    saved += image.size() - recompress(image).size();
+                    visited++;
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not recompress image {}: {}", image.key(), e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not list the image store: {}", e.getMessage());
+        }
+        if (visited > 0) log.info("Moved {} images to the cold tier, saving {} bytes", visited, saved);
+    }
+
+    private StoredImage recompress(StoredImage image) throws IOException {
+        Optional<Resource> resource = imageStore.get(image.key());
+        if (resource.isEmpty()) return image;
+        byte[] original;
+        try (InputStream in = resource.get().getInputStream()) {
+            original = in.readAllBytes();
+        }
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(original));
+        byte[] smaller = original;
+        if (decoded != null) {
+            byte[] encoded = FaceImagePreprocessor.encodeJpeg(
+                    FaceImagePreprocessor.downscale(decoded, maxDimension), jpegQuality);
+            if (encoded.length < original.length) smaller = encoded;
+        }
+        return imageStore.archive(image.key(), smaller);
+    }
+}
@@ -0,0 +1,100 @@
+package com.bundyclock.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed storage for face and audit images.
+ *
+ * <p>Images are keyed by the SHA-256 of their bytes, so storing the same
+ * frame twice costs nothing and the key is all a row needs to keep. The
+ * operations mirror what an object store such as S3 offers (put, get, head,
+ * delete, list), so a remote implementation can replace the local one
+ * selected by {@code app.storage.type}.
+ */
+public interface ImageStore extends AutoCloseable {
+
+    Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+
+    /**
+     * Stores {@code content} unless an image with the same bytes is already
+     * held, and returns it either way.
+     */
+    StoredImage put(byte[] content) throws IOException;
+
+    /**
+     * Stores {@code content} on a background thread, keeping the write off
+     * the caller's request.
+     *
+     * @return a future completing with the stored image; it fails with
+     *         {@link java.util.concurrent.RejectedExecutionException} when too
+     *         many writes are already queued
+     */
+    default CompletableFuture<StoredImage> putAsync(byte[] content) {
+        return putAsync(() -> content);
+    }
+
+    /**
+     * Like {@link #putAsync(byte[])}, but the bytes are produced by
+     * {@code content} on the background thread, so preparing them (say,
+     * re-encoding a large image) stays off the caller's request too.
+     */
+    CompletableFuture<StoredImage> putAsync(Callable<byte[]> content);
+
+    /**
+     * How full the queue of background writes is, from 0 when idle to 1 when
+     * the next {@link #putAsync} would be rejected.
+     */
+    double writeBacklog();
+
+    Optional<Resource> get(String key) throws IOException;
+
+    Optional<StoredImage> head(String key) throws IOException;
+
+    boolean delete(String key) throws IOException;
+
+    /**
+     * Every stored image, in no particular order. The stream holds open
+     * directory handles and must be closed.
+     */
+    Stream<StoredImage> list() throws IOException;
+
+    /**
+     * Replaces the content held under {@code key} with its cold-tier form,
+     * typically a smaller re-encoding of the same image. The key is unchanged.
+     *
+     * @throws com.bundyclock.common.exception.ResourceNotFoundException when nothing is stored under {@code key}
+     */
+    StoredImage archive(String key, byte[] content) throws IOException;
+
+    /**
+     * Stops accepting background writes and waits for the queued ones to
+     * finish, so their futures have completed when this returns. Calling it
+     * again does nothing.
+     */
+    @Override
+    void close() throws InterruptedException;
+
+    static String keyOf(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static void checkKey(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid image key: " + key);
+        }
+    }
+}
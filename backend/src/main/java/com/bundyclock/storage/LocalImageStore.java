@@ -0,0 +1,219 @@
+package com.bundyclock.storage;
+
+import com.bundyclock.common.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link ImageStore} on the local filesystem under {@code app.storage.image-dir}.
+ *
+ * <p>An image lives at {@code ab/cd/<key>}, sharded by the first two bytes of
+ * its key, so no directory holds more than a few hundred files even at tens
+ * of millions of images. Its cold-tier form replaces it as
+ * {@code ab/cd/<key>.cold}. Writes go to a temporary file in the target
+ * directory and are moved into place atomically, so readers never see a
+ * partial image. Asynchronous writes, the path audit images of punches take,
+ * run on {@code async.threads} virtual threads behind a queue of
+ * {@code async.queue-capacity}; beyond it they are rejected rather than held
+ * in memory, and {@link #writeBacklog()} lets callers shed load before that. Published as
+ * {@code image.store.writes} tagged {@code result=stored|deduplicated} and
+ * the {@code image.store.queue} gauge.
+ */
+@Slf4j
+public class LocalImageStore implements ImageStore {
+
+    private static final String COLD_SUFFIX = ".cold";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path root;
+    private final ThreadPoolExecutor writer;
+    private final Counter stored;
+    private final Counter deduplicated;
+
+    public LocalImageStore(Path root, int asyncThreads, int queueCapacity, MeterRegistry meterRegistry)
+            throws IOException {
+        this.root = Files.createDirectories(root).toAbsolutePath();
+        this.writer = new ThreadPoolExecutor(asyncThreads, asyncThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("image-store-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.stored = writes(meterRegistry, "stored");
+        this.deduplicated = writes(meterRegistry, "deduplicated");
+        Gauge.builder("image.store.queue", writer, executor -> executor.getQueue().size())
+                .description("Image writes waiting for a writer thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public StoredImage put(byte[] content) throws IOException {
+        String key = ImageStore.keyOf(content);
+        Optional<StoredImage> existing = head(key);
+        if (existing.isPresent()) {
+            deduplicated.increment();
+            return existing.get();
+        }
+        Path target = hotPath(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), key, TEMP_SUFFIX);
+        try {
+            Files.write(temp, content);
+            // Two writers racing on the same frame both land here; the later rename replaces identical bytes.
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        stored.increment();
+        return stat(key, target, StoredImage.Tier.HOT);
+    }
+
+    @Override
+    public CompletableFuture<StoredImage> putAsync(Callable<byte[]> content) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return put(content.call());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, writer);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public double writeBacklog() {
+        BlockingQueue<Runnable> queue = writer.getQueue();
+        int size = queue.size();
+        return (double) size / (size + queue.remainingCapacity());
+    }
+
+    @Override
+    public Optional<Resource> get(String key) throws IOException {
+        ImageStore.checkKey(key);
+        return locate(key).map(FileSystemResource::new);
+    }
+
+    @Override
+    public Optional<StoredImage> head(String key) throws IOException {
+        ImageStore.checkKey(key);
+        for (StoredImage.Tier tier : StoredImage.Tier.values()) {
+            try {
+                return Optional.of(stat(key, pathOf(key, tier), tier));
+            } catch (NoSuchFileException e) {
+                // Not in this tier.
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        ImageStore.checkKey(key);
+        boolean hot = Files.deleteIfExists(hotPath(key));
+        boolean cold = Files.deleteIfExists(coldPath(key));
+        return hot || cold;
+    }
+
+    @Override
+    public Stream<StoredImage> list() throws IOException {
+        return Files.find(root, 3, (path, attributes) -> attributes.isRegularFile())
+                .map(this::toStoredImage)
+                .flatMap(Optional::stream);
+    }
+
+    @Override
+    public StoredImage archive(String key, byte[] content) throws IOException {
+        ImageStore.checkKey(key);
+        Path hot = hotPath(key);
+        if (!Files.exists(hot) && !Files.exists(coldPath(key))) {
+            throw new ResourceNotFoundException("No image stored under " + key);
+        }
+        Path target = coldPath(key);
+        Path temp = Files.createTempFile(target.getParent(), key, TEMP_SUFFIX);
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        Files.deleteIfExists(hot);
+        return stat(key, target, StoredImage.Tier.COLD);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Image store stopped with {} writes still queued", writer.shutdownNow().size());
+        }
+    }
+
+    Path hotPath(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private Path coldPath(String key) {
+        return hotPath(key).resolveSibling(key + COLD_SUFFIX);
+    }
+
+    private Path pathOf(String key, StoredImage.Tier tier) {
+        return tier == StoredImage.Tier.HOT ? hotPath(key) : coldPath(key);
+    }
+
+    private Optional<Path> locate(String key) {
+        Path hot = hotPath(key);
+        if (Files.exists(hot)) return Optional.of(hot);
+        Path cold = coldPath(key);
+        return Files.exists(cold) ? Optional.of(cold) : Optional.empty();
+    }
+
+    private Optional<StoredImage> toStoredImage(Path path) {
+        String name = path.getFileName().toString();
+        StoredImage.Tier tier = name.endsWith(COLD_SUFFIX) ? StoredImage.Tier.COLD : StoredImage.Tier.HOT;
+        String key = tier == StoredImage.Tier.COLD ? name.substring(0, name.length() - COLD_SUFFIX.length()) : name;
+        if (!KEY.matcher(key).matches()) return Optional.empty();
+        try {
+            return Optional.of(stat(key, path, tier));
+        } catch (IOException e) {
+            // Deleted or archived since the directory was read.
+            return Optional.empty();
+        }
+    }
+
+    private static StoredImage stat(String key, Path path, StoredImage.Tier tier) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return new StoredImage(key, attributes.size(), attributes.lastModifiedTime().toInstant(), tier);
+    }
+
+    private static Counter writes(MeterRegistry registry, String result) {
+        return Counter.builder("image.store.writes")
+                .description("Images written to the store, and writes skipped because the image was already held")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,19 @@
+package com.bundyclock.storage;
+
+import java.time.Instant;
+
+/**
+ * An image held by an {@link ImageStore}.
+ *
+ * @param key          SHA-256 of the content as first stored, in lowercase hex
+ * @param size         bytes currently held, which shrink once the image is recompressed
+ * @param lastModified when the current content was written
+ * @param tier         {@code HOT} as uploaded, {@code COLD} once the recompression job has visited it
+ */
+public record StoredImage(String key, long size, Instant lastModified, Tier tier) {
+
+    public enum Tier {
+        HOT,
+        COLD
+    }
+}
@@ -0,0 +1,66 @@
+package db.migration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Converts the JSON {@code embedding_vector} TEXT column into the binary
+ * {@code embedding} column added by V2, then drops the TEXT column.
+ *
+ * <p>Writes the float32 layout of {@code EmbeddingCodec} as it was when this
+ * migration shipped: tag byte {@code 1}, then the components as little-endian
+ * float32. The encoding is spelled out here so later codec changes cannot
+ * alter what this migration writes.
+ */
+public class V3__convert_embedding_vectors_to_bytea extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+    private static final byte FLOAT32_TAG = 1;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery(
+                     "SELECT id, embedding_vector FROM face_embeddings "
+                             + "WHERE embedding_vector IS NOT NULL AND embedding IS NULL");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE face_embeddings SET embedding = ? WHERE id = ?")) {
+            int pending = 0;
+            while (rows.next()) {
+                float[] vector = objectMapper.readValue(rows.getString(2), float[].class);
+                update.setBytes(1, encodeFloat32(vector));
+                update.setObject(2, rows.getObject(1));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) update.executeBatch();
+        }
+
+        try (Statement drop = connection.createStatement()) {
+            drop.execute("ALTER TABLE face_embeddings DROP COLUMN embedding_vector");
+        }
+    }
+
+    static byte[] encodeFloat32(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(FLOAT32_TAG);
+        for (float component : vector) {
+            buffer.putFloat(component);
+        }
+        return buffer.array();
+    }
+}
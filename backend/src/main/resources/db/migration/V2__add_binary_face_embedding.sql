@@ -0,0 +1,5 @@
+-- V2__add_binary_face_embedding.sql
+-- Binary embedding column: one format byte + little-endian float32/float16 components.
+-- Existing JSON vectors are converted by the Java migration V3.
+
+ALTER TABLE face_embeddings ADD COLUMN IF NOT EXISTS embedding BYTEA;
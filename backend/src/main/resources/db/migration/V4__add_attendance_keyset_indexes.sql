@@ -0,0 +1,10 @@
+-- V4__add_attendance_keyset_indexes.sql
+-- Per-employee attendance queries (ORDER BY timestamp DESC, id DESC) read this
+-- index in order instead of sorting. Unfiltered listings use the existing
+-- idx_attendance_logs_timestamp.
+
+CREATE INDEX IF NOT EXISTS idx_attendance_logs_employee_timestamp
+    ON attendance_logs (employee_id, timestamp DESC, id DESC);
+
+-- Covered by the leading column of the index above.
+DROP INDEX IF EXISTS idx_attendance_logs_employee_id;
@@ -0,0 +1,21 @@
+-- V5__create_daily_attendance_summary.sql
+-- Per employee-day timesheet figures, maintained on every punch (see TimesheetEngine).
+-- The primary key serves both the employee timesheet range scan and, joined
+-- from employees by department, the monthly department report.
+
+CREATE TABLE IF NOT EXISTS daily_attendance_summary (
+    employee_id      UUID                     NOT NULL REFERENCES employees(id) ON DELETE CASCADE,
+    work_date        DATE                     NOT NULL,
+    first_in         TIMESTAMP WITH TIME ZONE,
+    last_out         TIMESTAMP WITH TIME ZONE,
+    open_since       TIMESTAMP WITH TIME ZONE,
+    last_punch_at    TIMESTAMP WITH TIME ZONE NOT NULL,
+    sessions         INTEGER                  NOT NULL DEFAULT 0,
+    worked_minutes   INTEGER                  NOT NULL DEFAULT 0,
+    overtime_minutes INTEGER                  NOT NULL DEFAULT 0,
+    late_minutes     INTEGER                  NOT NULL DEFAULT 0,
+    updated_at       TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    PRIMARY KEY (employee_id, work_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_employees_department ON employees(department);
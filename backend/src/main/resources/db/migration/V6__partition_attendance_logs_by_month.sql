@@ -0,0 +1,68 @@
+-- V6__partition_attendance_logs_by_month.sql
+-- Converts attendance_logs into monthly range partitions on timestamp (UTC
+-- month boundaries, named attendance_logs_pYYYYMM). Index maintenance and
+-- vacuum then work on one month at a time, queries bounded by timestamp only
+-- touch the partitions they need, and old months can be detached instead of
+-- deleted row by row. Future partitions are created and expired ones archived
+-- by AttendancePartitionMaintenance.
+--
+-- The primary key of a partitioned table must include the partition key, so
+-- it becomes (id, timestamp); ids are still generated as UUIDs.
+
+ALTER TABLE attendance_logs RENAME TO attendance_logs_legacy;
+ALTER TABLE attendance_logs_legacy RENAME CONSTRAINT attendance_logs_pkey TO attendance_logs_legacy_pkey;
+DROP INDEX IF EXISTS idx_attendance_logs_employee_timestamp;
+DROP INDEX IF EXISTS idx_attendance_logs_employee_id;
+DROP INDEX IF EXISTS idx_attendance_logs_timestamp;
+DROP INDEX IF EXISTS idx_attendance_logs_type;
+
+CREATE TABLE attendance_logs (
+    id               UUID                     NOT NULL DEFAULT uuid_generate_v4(),
+    employee_id      UUID                     NOT NULL REFERENCES employees(id) ON DELETE CASCADE,
+    timestamp        TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    type             VARCHAR(10)              NOT NULL CHECK (type IN ('TIME_IN', 'TIME_OUT')),
+    image_path       VARCHAR(500),
+    confidence_score DECIMAL(5, 4),
+    verified         BOOLEAN                  DEFAULT FALSE,
+    notes            TEXT,
+    created_at       TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- Catches rows outside every monthly partition (e.g. clock skew far into the
+-- future) so an insert never fails for want of a partition.
+CREATE TABLE attendance_logs_default PARTITION OF attendance_logs DEFAULT;
+
+-- One partition per month from the oldest log through three months ahead.
+DO $$
+DECLARE
+    month_start TIMESTAMP;
+    last_month  TIMESTAMP := date_trunc('month', NOW() AT TIME ZONE 'UTC') + INTERVAL '3 months';
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(timestamp), NOW()) AT TIME ZONE 'UTC')
+      INTO month_start
+      FROM attendance_logs_legacy;
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF attendance_logs FOR VALUES FROM (%L) TO (%L)',
+                       'attendance_logs_p' || to_char(month_start, 'YYYYMM'),
+                       month_start AT TIME ZONE 'UTC',
+                       (month_start + INTERVAL '1 month') AT TIME ZONE 'UTC');
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO attendance_logs
+    (id, employee_id, timestamp, type, image_path, confidence_score, verified, notes, created_at)
+SELECT id, employee_id, COALESCE(timestamp, created_at, NOW()), type, image_path, confidence_score, verified,
+       notes, created_at
+FROM attendance_logs_legacy;
+
+DROP TABLE attendance_logs_legacy;
+
+-- Created on the parent after the copy; each partition gets its own index.
+-- The type index is not recreated: with two values it is rarely selective, and
+-- type filters are applied to rows found through the indexes below.
+CREATE INDEX idx_attendance_logs_employee_timestamp
+    ON attendance_logs (employee_id, timestamp DESC, id DESC);
+CREATE INDEX idx_attendance_logs_timestamp
+    ON attendance_logs (timestamp DESC, id DESC);
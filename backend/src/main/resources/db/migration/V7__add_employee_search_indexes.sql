@@ -0,0 +1,10 @@
+-- V7__add_employee_search_indexes.sql
+-- Type-ahead search matches lower(name) or lower(employee_code) by prefix
+-- (LIKE 'abc%'); text_pattern_ops lets those LIKEs use a btree range scan
+-- whatever the database collation. The plain name index serves the default
+-- ORDER BY name, id page without sorting the table. Department filters use
+-- idx_employees_department from V5.
+
+CREATE INDEX IF NOT EXISTS idx_employees_name_prefix ON employees (lower(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_employees_code_prefix ON employees (lower(employee_code) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_employees_name        ON employees (name, id);
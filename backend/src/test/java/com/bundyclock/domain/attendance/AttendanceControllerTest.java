@@ -1,5 +1,6 @@
 package com.bundyclock.domain.attendance;
 
+import com.bundyclock.common.dto.CursorPage;
 import com.bundyclock.common.exception.ResourceNotFoundException;
 import com.bundyclock.config.SecurityConfig;
 import org.junit.jupiter.api.DisplayName;
@@ -9,15 +10,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -150,38 +162,247 @@ class AttendanceControllerTest {
         }
     }
 
+    // -------------------------------------------------------------------------
+    // POST /api/attendance/punch
+    // -------------------------------------------------------------------------
+
+    @Nested
+    @DisplayName("POST /api/attendance/punch")
+    class Punch {
+
+        @Test
+        @DisplayName("returns 200 with the recorded log when the face matches")
+        void recordsPunchForMatchedFace() throws Exception {
+            UUID employeeId = UUID.randomUUID();
+            AttendanceLog log = sampleLog(employeeId, AttendanceLog.AttendanceType.TIME_IN);
+            when(attendanceService.punch(any())).thenReturn(PunchResult.builder()
+                    .matched(true)
+                    .employeeId(employeeId)
+                    .confidenceScore(new BigDecimal("0.9800"))
+                    .type(AttendanceLog.AttendanceType.TIME_IN)
+                    .log(log)
+                    .message("Time-In recorded")
+                    .build());
+
+            mockMvc.perform(multipart("/api/attendance/punch")
+                            .file(sampleImagePart()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.message").value("Time-In recorded"))
+                    .andExpect(jsonPath("$.data.matched").value(true))
+                    .andExpect(jsonPath("$.data.type").value("TIME_IN"))
+                    .andExpect(jsonPath("$.data.log.confidenceScore").value(0.98));
+        }
+
+        @Test
+        @DisplayName("returns 200 with matched=false and no log when the face is unknown")
+        void returnsNoMatch() throws Exception {
+            when(attendanceService.punch(any())).thenReturn(PunchResult.builder()
+                    .matched(false)
+                    .message("No match found.")
+                    .build());
+
+            mockMvc.perform(multipart("/api/attendance/punch")
+                            .file(sampleImagePart()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.matched").value(false))
+                    .andExpect(jsonPath("$.data.log").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("returns 409 for a repeated scan")
+        void returns409ForDuplicateScan() throws Exception {
+            when(attendanceService.punch(any()))
+                    .thenThrow(new IllegalStateException("Already recorded TIME_IN at 08:00:12."));
+
+            mockMvc.perform(multipart("/api/attendance/punch")
+                            .file(sampleImagePart()))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.success").value(false));
+        }
+    }
+
     // -------------------------------------------------------------------------
     // GET /api/attendance
     // -------------------------------------------------------------------------
 
     @Nested
     @DisplayName("GET /api/attendance")
-    class GetAllLogs {
+    class SearchLogs {
 
         @Test
-        @DisplayName("returns 200 with all attendance logs")
-        void returnsAllLogs() throws Exception {
+        @DisplayName("returns 200 with a page of logs and the next cursor")
+        void returnsPage() throws Exception {
             UUID emp1 = UUID.randomUUID();
             UUID emp2 = UUID.randomUUID();
-            when(attendanceService.getAllLogs()).thenReturn(List.of(
-                    sampleLog(emp1, AttendanceLog.AttendanceType.TIME_IN),
-                    sampleLog(emp2, AttendanceLog.AttendanceType.TIME_OUT)
-            ));
-
-            mockMvc.perform(get("/api/attendance"))
+            when(attendanceService.searchLogs(any(), any(), eq(2))).thenReturn(CursorPage.<AttendanceLog>builder()
+                    .items(List.of(
+                            sampleLog(emp1, AttendanceLog.AttendanceType.TIME_IN),
+                            sampleLog(emp2, AttendanceLog.AttendanceType.TIME_OUT)))
+                    .hasMore(true)
+                    .nextCursor("abc")
+                    .build());
+
+            mockMvc.perform(get("/api/attendance").param("limit", "2"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
-                    .andExpect(jsonPath("$.data", hasSize(2)));
+                    .andExpect(jsonPath("$.data.items", hasSize(2)))
+                    .andExpect(jsonPath("$.data.hasMore").value(true))
+                    .andExpect(jsonPath("$.data.nextCursor").value("abc"));
+        }
+
+        @Test
+        @DisplayName("passes filters and cursor to the service")
+        void passesFilters() throws Exception {
+            UUID employeeId = UUID.randomUUID();
+            AttendanceLogFilter expected = new AttendanceLogFilter(employeeId, AttendanceLog.AttendanceType.TIME_OUT,
+                    true, ZonedDateTime.parse("2025-03-01T00:00:00Z"), ZonedDateTime.parse("2025-03-02T00:00:00Z"));
+            when(attendanceService.searchLogs(eq(expected), eq("abc"), eq(50))).thenReturn(CursorPage.<AttendanceLog>builder()
+                    .items(List.of())
+                    .build());
+
+            mockMvc.perform(get("/api/attendance")
+                            .param("employeeId", employeeId.toString())
+                            .param("type", "TIME_OUT")
+                            .param("verified", "true")
+                            .param("from", "2025-03-01T00:00:00Z")
+                            .param("to", "2025-03-02T00:00:00Z")
+                            .param("cursor", "abc"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.items", hasSize(0)))
+                    .andExpect(jsonPath("$.data.hasMore").value(false));
+        }
+
+        @Test
+        @DisplayName("returns 400 for an invalid cursor")
+        void returns400ForInvalidCursor() throws Exception {
+            when(attendanceService.searchLogs(any(), eq("bogus"), eq(50)))
+                    .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+            mockMvc.perform(get("/api/attendance").param("cursor", "bogus"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Invalid cursor"));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // GET /api/attendance/export
+    // -------------------------------------------------------------------------
+
+    @Nested
+    @DisplayName("GET /api/attendance/export")
+    class ExportLogs {
+
+        private void stubExport(AttendanceExporter.Format format, String body) throws Exception {
+            when(attendanceService.exportLogs(any(), eq(format), any())).thenAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(2);
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+                return 1L;
+            });
+        }
+
+        @Test
+        @DisplayName("streams NDJSON as an attachment")
+        void streamsNdjson() throws Exception {
+            stubExport(AttendanceExporter.Format.NDJSON, "{\"type\":\"TIME_IN\"}\n");
+
+            MvcResult result = mockMvc.perform(get("/api/attendance/export").param("format", "ndjson"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Disposition", containsString("attendance.ndjson")))
+                    .andExpect(content().string("{\"type\":\"TIME_IN\"}\n"));
         }
 
         @Test
-        @DisplayName("returns 200 with empty list when no logs exist")
-        void returnsEmptyList() throws Exception {
-            when(attendanceService.getAllLogs()).thenReturn(List.of());
+        @DisplayName("gzips the stream when the client accepts it")
+        void gzipsWhenAccepted() throws Exception {
+            stubExport(AttendanceExporter.Format.CSV, "id,employee_id\n");
+
+            MvcResult result = mockMvc.perform(get("/api/attendance/export")
+                            .header("Accept-Encoding", "gzip, deflate"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
 
-            mockMvc.perform(get("/api/attendance"))
+            byte[] body = mockMvc.perform(asyncDispatch(result))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.data", hasSize(0)));
+                    .andExpect(header().string("Content-Encoding", "gzip"))
+                    .andReturn().getResponse().getContentAsByteArray();
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("id,employee_id\n");
+            }
+        }
+
+        @Test
+        @DisplayName("returns 400 for an unsupported format")
+        void returns400ForUnsupportedFormat() throws Exception {
+            mockMvc.perform(get("/api/attendance/export").param("format", "xlsx"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Unsupported export format: xlsx"));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // GET /api/attendance/stream
+    // -------------------------------------------------------------------------
+
+    @Nested
+    @DisplayName("GET /api/attendance/stream")
+    class StreamLogs {
+
+        @Test
+        @DisplayName("opens an event stream with the requested filters")
+        void opensEventStream() throws Exception {
+            UUID employeeId = UUID.randomUUID();
+            when(attendanceService.streamLogs(employeeId, "Engineering")).thenReturn(new SseEmitter());
+
+            mockMvc.perform(get("/api/attendance/stream")
+                            .accept(MediaType.TEXT_EVENT_STREAM)
+                            .param("employeeId", employeeId.toString())
+                            .param("department", "Engineering"))
+                    .andExpect(request().asyncStarted())
+                    .andExpect(header().string("Content-Type", containsString("text/event-stream")));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // GET /api/attendance/timesheet
+    // -------------------------------------------------------------------------
+
+    @Nested
+    @DisplayName("GET /api/attendance/timesheet")
+    class Timesheet {
+
+        @Test
+        @DisplayName("returns 200 with the department's totals for the month")
+        void returnsDepartmentReport() throws Exception {
+            UUID employeeId = UUID.randomUUID();
+            when(attendanceService.getDepartmentReport("Engineering", YearMonth.of(2025, 3))).thenReturn(List.of(
+                    new TimesheetReportRow(employeeId, "EMP-001", "Alice Reyes", 21L, 10_200L, 120L, 35L, 3L)));
+
+            mockMvc.perform(get("/api/attendance/timesheet/report")
+                            .param("department", "Engineering")
+                            .param("month", "2025-03"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data", hasSize(1)))
+                    .andExpect(jsonPath("$.data[0].employeeId").value(employeeId.toString()))
+                    .andExpect(jsonPath("$.data[0].workedMinutes").value(10_200));
+        }
+
+        @Test
+        @DisplayName("returns 400 when the range is invalid")
+        void returns400ForInvalidRange() throws Exception {
+            UUID employeeId = UUID.randomUUID();
+            when(attendanceService.getTimesheet(employeeId, LocalDate.of(2025, 3, 31), LocalDate.of(2025, 3, 1)))
+                    .thenThrow(new IllegalArgumentException("to must not be before from"));
+
+            mockMvc.perform(get("/api/attendance/timesheet")
+                            .param("employeeId", employeeId.toString())
+                            .param("from", "2025-03-31")
+                            .param("to", "2025-03-01"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("to must not be before from"));
         }
     }
 
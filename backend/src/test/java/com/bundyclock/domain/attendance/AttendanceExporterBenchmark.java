@@ -0,0 +1,131 @@
+package com.bundyclock.domain.attendance;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Export throughput on a large table. Excluded from {@code test}; run with
+ * {@code ./gradlew benchmark}.
+ *
+ * <p>Defaults to an in-memory H2 database with {@code bench.rows} (2,000,000)
+ * logs. Point {@code bench.jdbc.url}/{@code bench.jdbc.user}/{@code bench.jdbc.password}
+ * at a scratch PostgreSQL database to measure the real cursor path; the tables
+ * are created and dropped by the benchmark.
+ */
+@Tag("benchmark")
+@DisplayName("AttendanceExporter benchmark")
+class AttendanceExporterBenchmark {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 2_000_000);
+    private static final int EMPLOYEES = 1_000;
+
+    private static JdbcTemplate jdbcTemplate;
+    private static AttendanceExporter exporter;
+
+    @BeforeAll
+    static void populate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("bench.jdbc.url", "jdbc:h2:mem:bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"),
+                System.getProperty("bench.jdbc.user", "sa"),
+                System.getProperty("bench.jdbc.password", ""));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        exporter = new AttendanceExporter(jdbcTemplate, transactionTemplate, 5_000);
+
+        jdbcTemplate.execute("DROP TABLE IF EXISTS attendance_logs");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS employees");
+        jdbcTemplate.execute("CREATE TABLE employees (id UUID PRIMARY KEY, employee_code VARCHAR(50), "
+                + "name VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE attendance_logs (id UUID PRIMARY KEY, employee_id UUID NOT NULL, "
+                + "timestamp TIMESTAMP WITH TIME ZONE, type VARCHAR(10) NOT NULL, "
+                + "confidence_score DECIMAL(5, 4), verified BOOLEAN)");
+        jdbcTemplate.execute("CREATE INDEX idx_bench_timestamp ON attendance_logs (timestamp)");
+
+        List<UUID> employees = new ArrayList<>();
+        List<Object[]> employeeRows = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            UUID id = UUID.randomUUID();
+            employees.add(id);
+            employeeRows.add(new Object[]{id, "EMP-" + i, "Employee " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO employees VALUES (?, ?, ?)", employeeRows);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OffsetDateTime start = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[]{
+                    UUID.randomUUID(),
+                    employees.get(random.nextInt(EMPLOYEES)),
+                    start.plusSeconds(i),
+                    i % 2 == 0 ? "TIME_IN" : "TIME_OUT",
+                    new BigDecimal("0.9").add(BigDecimal.valueOf(random.nextInt(1000), 4)),
+                    true});
+            if (batch.size() == 10_000 || i == ROWS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO attendance_logs VALUES (?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("CSV export throughput")
+    void csv() throws IOException {
+        run(AttendanceExporter.Format.CSV);
+    }
+
+    @Test
+    @DisplayName("NDJSON export throughput")
+    void ndjson() throws IOException {
+        run(AttendanceExporter.Format.NDJSON);
+    }
+
+    private void run(AttendanceExporter.Format format) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        long start = System.nanoTime();
+        long rows = exporter.export(new AttendanceLogFilter(null, null, null, null, null), format, out);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+        System.out.printf("%s: %,d rows, %.1f MB in %.2f s — %,.0f rows/s, %.1f MB/s, heap delta %+.1f MB%n",
+                format, rows, out.bytes / 1e6, seconds, rows / seconds, out.bytes / 1e6 / seconds,
+                (heapAfter - heapBefore) / 1e6);
+        assertThat(rows).isEqualTo(ROWS);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.bundyclock.domain.attendance;
+
+import com.bundyclock.storage.ImageStore;
+import com.bundyclock.storage.LocalImageStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link AttendanceImageRecorder}.
+ */
+@DisplayName("AttendanceImageRecorder")
+class AttendanceImageRecorderTest {
+
+    @TempDir
+    Path root;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private LocalImageStore imageStore;
+    private AttendanceImageRecorder recorder;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (recorder != null) recorder.shutdown();
+        if (imageStore != null) imageStore.close();
+    }
+
+    private AttendanceImageRecorder recorder(String overflow, double downsampleAbove) throws IOException {
+        imageStore = new LocalImageStore(root, 1, 16, meterRegistry);
+        return recorder(imageStore, overflow, downsampleAbove);
+    }
+
+    private AttendanceImageRecorder recorder(ImageStore store, String overflow, double downsampleAbove) {
+        recorder = new AttendanceImageRecorder(store, jdbcTemplate, meterRegistry, true, overflow, downsampleAbove,
+                64, 500, Duration.ofMinutes(5));
+        return recorder;
+    }
+
+    private static AttendanceLog punch(ZonedDateTime timestamp) {
+        return AttendanceLog.builder()
+                .id(UUID.randomUUID())
+                .employeeId(UUID.randomUUID())
+                .timestamp(timestamp)
+                .type(AttendanceLog.AttendanceType.TIME_IN)
+                .build();
+    }
+
+    private static MockMultipartFile image(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, (x * 7 ^ y * 13) & 0xFFFFFF);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return new MockMultipartFile("image", "face.png", "image/png", out.toByteArray());
+    }
+
+    private double images(String result) {
+        return meterRegistry.counter("attendance.audit.images", "result", result).count();
+    }
+
+    private void awaitWrites(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (images("stored") + images("downsampled") + images("failed") < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenRowsUpdated(int count) {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class)))
+                .thenAnswer(invocation -> {
+                    int[] counts = new int[((List<Object[]>) invocation.getArgument(1)).size()];
+                    Arrays.fill(counts, count);
+                    return counts;
+                });
+    }
+
+    @Test
+    @DisplayName("stores the image and sets image_path to its key in one batch")
+    @SuppressWarnings("unchecked")
+    void storesAndLinks() throws Exception {
+        recorder("drop", 0.5);
+        givenRowsUpdated(1);
+        AttendanceLog first = punch(ZonedDateTime.now());
+        MockMultipartFile firstImage = image(32, 32);
+        recorder.record(first, firstImage);
+        recorder.record(punch(ZonedDateTime.now()), image(48, 48));
+        awaitWrites(2);
+
+        assertThat(recorder.flush()).isEqualTo(2);
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture(), any(int[].class));
+        assertThat(rows.getValue()).hasSize(2);
+        Object[] row = rows.getValue().stream().filter(r -> r[1].equals(first.getId())).findFirst().orElseThrow();
+        String key = ImageStore.keyOf(firstImage.getBytes());
+        assertThat(row[0]).isEqualTo(key);
+        assertThat(imageStore.get(key)).isPresent();
+        assertThat(images("stored")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("drops the image, without blocking or copying it, when the store's queue is full")
+    @SuppressWarnings("unchecked")
+    void dropsWhenFull() throws IOException {
+        ImageStore full = mock(ImageStore.class);
+        when(full.writeBacklog()).thenReturn(1.0, 0.9);
+        when(full.putAsync(any(Callable.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("queue full")));
+        recorder(full, "drop", 0.5);
+        MockMultipartFile first = spy(image(16, 16));
+
+        recorder.record(punch(ZonedDateTime.now()), first);
+        recorder.record(punch(ZonedDateTime.now()), image(16, 16));
+
+        assertThat(images("dropped")).isEqualTo(2);
+        assertThat(images("failed")).isZero();
+        verify(first, never()).getBytes();
+        verify(full, times(1)).putAsync(any(Callable.class));
+    }
+
+    @Test
+    @DisplayName("downsamples images written while the store's queue is backed up")
+    void downsamples() throws Exception {
+        recorder("downsample", 0.0);
+        givenRowsUpdated(1);
+        MockMultipartFile large = image(640, 480);
+
+        recorder.record(punch(ZonedDateTime.now()), large);
+        awaitWrites(1);
+
+        assertThat(images("downsampled")).isEqualTo(1);
+        assertThat(imageStore.get(ImageStore.keyOf(large.getBytes()))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("retries the update of a log not yet in the table, and gives up once it is too old")
+    @SuppressWarnings("unchecked")
+    void retriesMissingRows() throws Exception {
+        recorder("drop", 0.5);
+        givenRowsUpdated(0);
+        recorder.record(punch(ZonedDateTime.now()), image(16, 16));
+        recorder.record(punch(ZonedDateTime.now().minusHours(1)), image(24, 24));
+        awaitWrites(2);
+
+        assertThat(recorder.flush()).isZero();
+        assertThat(recorder.flush()).isZero();
+        assertThat(recorder.flush()).isZero();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), rows.capture(), any(int[].class));
+        assertThat(rows.getAllValues().get(0)).hasSize(2);
+        assertThat(rows.getAllValues().get(1)).hasSize(1);
+        assertThat(rows.getAllValues().get(2)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("links images still queued in the store when shut down")
+    @SuppressWarnings("unchecked")
+    void shutdownDrainsStoreBeforeFlushing() throws Exception {
+        recorder("drop", 0.5);
+        givenRowsUpdated(1);
+        CountDownLatch release = new CountDownLatch(1);
+        imageStore.putAsync(() -> {
+            release.await();
+            return image(8, 8).getBytes();
+        });
+        recorder.record(punch(ZonedDateTime.now()), image(16, 16));
+        Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+
+        recorder.shutdown();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), any(int[].class));
+        assertThat(rows.getValue()).hasSize(1);
+        assertThat(images("stored")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("ignores punches without an image")
+    void ignoresMissingImage() throws IOException {
+        recorder("drop", 0.5);
+
+        recorder.record(punch(ZonedDateTime.now()), null);
+        recorder.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), any(int[].class));
+    }
+}
@@ -0,0 +1,65 @@
+package com.bundyclock.domain.attendance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the {@link AttendanceJournal} record format.
+ */
+@DisplayName("AttendanceJournal")
+class AttendanceJournalTest {
+
+    private AttendanceLog sampleLog(BigDecimal confidenceScore) {
+        return AttendanceLog.builder()
+                .id(UUID.randomUUID())
+                .employeeId(UUID.randomUUID())
+                .timestamp(ZonedDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                .type(AttendanceLog.AttendanceType.TIME_OUT)
+                .confidenceScore(confidenceScore)
+                .verified(true)
+                .build();
+    }
+
+    @Test
+    @DisplayName("decodes a record into the insert parameters it was encoded from")
+    void roundTrip() {
+        AttendanceLog entry = sampleLog(new BigDecimal("0.9731"));
+
+        Object[] row = AttendanceJournal.decode(AttendanceJournal.encode(entry));
+
+        assertThat(row).isNotNull();
+        assertThat(row[0]).isEqualTo(entry.getId());
+        assertThat(row[1]).isEqualTo(entry.getEmployeeId());
+        assertThat(((OffsetDateTime) row[2]).toInstant()).isEqualTo(entry.getTimestamp().toInstant());
+        assertThat(row[3]).isEqualTo("TIME_OUT");
+        assertThat(row[4]).isEqualTo(new BigDecimal("0.9731"));
+        assertThat(row[5]).isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("keeps a missing confidence score as null")
+    void nullConfidence() {
+        Object[] row = AttendanceJournal.decode(AttendanceJournal.encode(sampleLog(null)));
+
+        assertThat(row).isNotNull();
+        assertThat(row[4]).isNull();
+    }
+
+    @Test
+    @DisplayName("rejects a record whose checksum does not match")
+    void rejectsCorruptRecord() {
+        ByteBuffer record = AttendanceJournal.encode(sampleLog(BigDecimal.ONE));
+        record.put(40, (byte) 7);
+
+        assertThat(AttendanceJournal.decode(record)).isNull();
+    }
+}
@@ -0,0 +1,129 @@
+package com.bundyclock.domain.attendance;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link AttendancePartitionMaintenance}.
+ */
+@DisplayName("AttendancePartitionMaintenance")
+class AttendancePartitionMaintenanceTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 3);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final AttendancePartitionMaintenance maintenance = new AttendancePartitionMaintenance(
+            jdbcTemplate, transactionTemplate, true, 3, 24, "attendance_archive");
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT to_regclass"), eq(Boolean.class), anyString()))
+                .thenReturn(false);
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private void givenRowsInDefault(boolean present) {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class),
+                any(OffsetDateTime.class), any(OffsetDateTime.class))).thenReturn(present);
+    }
+
+    @Test
+    @DisplayName("names monthly partitions the way migration V6 does and reads the month back")
+    void roundTripsPartitionName() {
+        String name = AttendancePartitionMaintenance.partitionName(YearMonth.of(2025, 3));
+
+        assertThat(name).isEqualTo("attendance_logs_p202503");
+        assertThat(AttendancePartitionMaintenance.monthOf(name)).isEqualTo(YearMonth.of(2025, 3));
+    }
+
+    @Test
+    @DisplayName("never treats the default partition or other tables as a month")
+    void ignoresOtherTables() {
+        assertThat(AttendancePartitionMaintenance.monthOf("attendance_logs_default")).isNull();
+        assertThat(AttendancePartitionMaintenance.monthOf("attendance_logs_pold")).isNull();
+        assertThat(AttendancePartitionMaintenance.monthOf("daily_attendance_summary")).isNull();
+    }
+
+    @Test
+    @DisplayName("creates a missing partition directly when the default partition holds none of its rows")
+    void createsPartition() {
+        givenRowsInDefault(false);
+
+        maintenance.createPartition(MONTH);
+
+        verify(jdbcTemplate).execute("CREATE TABLE attendance_logs_p202503 PARTITION OF attendance_logs"
+                + " FOR VALUES FROM ('2025-03-01 00:00:00+00') TO ('2025-04-01 00:00:00+00')");
+        verify(jdbcTemplate, never()).execute(startsWith("ALTER TABLE"));
+    }
+
+    @Test
+    @DisplayName("moves rows stranded in the default partition into the new partition in one transaction")
+    void movesStrandedRows() {
+        givenRowsInDefault(true);
+
+        maintenance.createPartition(MONTH);
+
+        InOrder order = inOrder(transactionTemplate, jdbcTemplate);
+        order.verify(transactionTemplate).executeWithoutResult(any());
+        order.verify(jdbcTemplate).execute("ALTER TABLE attendance_logs DETACH PARTITION attendance_logs_default");
+        order.verify(jdbcTemplate).execute(startsWith("CREATE TABLE attendance_logs_p202503 PARTITION OF"));
+        order.verify(jdbcTemplate).update(startsWith("INSERT INTO attendance_logs_p202503 SELECT * FROM "
+                + "attendance_logs_default"), any(OffsetDateTime.class), any(OffsetDateTime.class));
+        order.verify(jdbcTemplate).update(startsWith("DELETE FROM attendance_logs_default"),
+                any(OffsetDateTime.class), any(OffsetDateTime.class));
+        order.verify(jdbcTemplate)
+                .execute("ALTER TABLE attendance_logs ATTACH PARTITION attendance_logs_default DEFAULT");
+    }
+
+    @Test
+    @DisplayName("leaves an existing partition alone")
+    void skipsExisting() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT to_regclass"), eq(Boolean.class), anyString()))
+                .thenReturn(true);
+
+        maintenance.createPartition(MONTH);
+
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("fails loudly when the partition cannot be created")
+    void failsLoudly() {
+        givenRowsInDefault(true);
+        doThrow(new DataIntegrityViolationException("updated partition constraint would be violated"))
+                .when(jdbcTemplate).execute(startsWith("CREATE TABLE"));
+
+        assertThatThrownBy(() -> maintenance.createPartition(MONTH))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("attendance_logs_p202503");
+    }
+}
@@ -0,0 +1,164 @@
+package com.bundyclock.domain.attendance;
+
+import com.bundyclock.domain.face.FaceService;
+import com.bundyclock.domain.face.FaceVerifyResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.bundyclock.domain.attendance.AttendanceLog.AttendanceType.TIME_IN;
+import static com.bundyclock.domain.attendance.AttendanceLog.AttendanceType.TIME_OUT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the punch decisions of {@link AttendanceServiceImpl}, with the
+ * real {@link PunchStateCache} and {@link TimesheetEngine} over in-memory
+ * tables.
+ */
+@DisplayName("AttendanceServiceImpl")
+class AttendanceServiceImplTest {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    private final MutableClock clock = new MutableClock();
+    private final AttendanceLogRepository logRepository = mock(AttendanceLogRepository.class);
+    private final DailyAttendanceSummaryRepository summaryRepository = mock(DailyAttendanceSummaryRepository.class);
+    private final FaceService faceService = mock(FaceService.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final AttendanceJournal attendanceJournal = mock(AttendanceJournal.class);
+    private final Map<DailyAttendanceSummary.Key, DailyAttendanceSummary> summaries = new HashMap<>();
+    private final UUID employeeId = UUID.randomUUID();
+    private PunchStateCache punchStateCache;
+    private AttendanceServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(logRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(logRepository.findByTimestampBetweenOrderByTimestampDesc(any(), any())).thenReturn(List.of());
+        when(summaryRepository.findById(any())).thenAnswer(invocation ->
+                Optional.ofNullable(summaries.get((DailyAttendanceSummary.Key) invocation.getArgument(0))));
+        when(summaryRepository.save(any())).thenAnswer(invocation -> {
+            DailyAttendanceSummary summary = invocation.getArgument(0);
+            summaries.put(summary.getId(), summary);
+            return summary;
+        });
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(faceService.verify(any())).thenReturn(FaceVerifyResult.builder()
+                .matched(true)
+                .employeeId(employeeId)
+                .confidenceScore(BigDecimal.ONE)
+                .build());
+
+        punchStateCache = new PunchStateCache(logRepository, clock, Duration.ofHours(16));
+        punchStateCache.warm();
+        TimesheetEngine timesheetEngine = new TimesheetEngine(summaryRepository, mock(JdbcTemplate.class),
+                transactionTemplate, "09:00", Duration.ofMinutes(5), Duration.ofHours(8), false);
+        service = new AttendanceServiceImpl(logRepository, faceService, punchStateCache, attendanceJournal,
+                mock(AttendanceExporter.class), timesheetEngine, summaryRepository, transactionTemplate,
+                mock(ApplicationEventPublisher.class), mock(AttendanceFeed.class),
+                mock(AttendanceImageRecorder.class), clock);
+        ReflectionTestUtils.setField(service, "minPunchInterval", Duration.ofSeconds(60));
+    }
+
+    private static MockMultipartFile image() {
+        return new MockMultipartFile("image", "face.jpg", "image/jpeg", new byte[]{1, 2, 3});
+    }
+
+    /** Moves the clock to {@code time} and runs the midnight eviction, as the scheduler would have. */
+    private void at(LocalDateTime time) {
+        clock.set(time.atZone(ZONE).toInstant());
+        punchStateCache.evictPreviousDays();
+    }
+
+    private DailyAttendanceSummary summary(LocalDate date) {
+        return summaries.get(new DailyAttendanceSummary.Key(employeeId, date));
+    }
+
+    @Test
+    @DisplayName("a night shift's morning scan is its time-out, credited to the day it started")
+    void punchAcrossMidnight() {
+        at(DAY.atTime(22, 0));
+        assertThat(service.punch(image()).getType()).isEqualTo(TIME_IN);
+
+        at(DAY.plusDays(1).atTime(6, 0));
+        assertThat(service.punch(image()).getType()).isEqualTo(TIME_OUT);
+
+        assertThat(summary(DAY).getWorkedMinutes()).isEqualTo(480);
+        assertThat(summary(DAY).getOpenSince()).isNull();
+        assertThat(summary(DAY.plusDays(1))).isNull();
+    }
+
+    @Test
+    @DisplayName("time-out closes a session opened before midnight")
+    void timeOutAcrossMidnight() {
+        at(DAY.atTime(22, 0));
+        service.timeIn(employeeId, null);
+
+        at(DAY.plusDays(1).atTime(6, 0));
+        assertThat(service.timeOut(employeeId, null).getType()).isEqualTo(TIME_OUT);
+
+        assertThat(summary(DAY).getWorkedMinutes()).isEqualTo(480);
+    }
+
+    @Test
+    @DisplayName("a time-in older than max-shift no longer holds a session open")
+    void staleTimeIn() {
+        at(DAY.atTime(8, 0));
+        service.punch(image());
+
+        at(DAY.plusDays(1).atTime(9, 0));
+        assertThat(service.punch(image()).getType()).isEqualTo(TIME_IN);
+
+        assertThat(summary(DAY).getOpenSince()).isNotNull();
+        assertThat(summary(DAY.plusDays(1)).getOpenSince()).isNotNull();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.now();
+
+        void set(Instant instant) {
+            now = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.bundyclock.domain.attendance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import static com.bundyclock.domain.attendance.AttendanceLog.AttendanceType.TIME_IN;
+import static com.bundyclock.domain.attendance.AttendanceLog.AttendanceType.TIME_OUT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the session pairing in {@link DailyAttendanceSummary}.
+ */
+@DisplayName("DailyAttendanceSummary")
+class DailyAttendanceSummaryTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Manila");
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+    private static final WorkSchedule SCHEDULE =
+            new WorkSchedule(LocalTime.of(9, 0), Duration.ofMinutes(5), Duration.ofHours(8), ZONE);
+
+    private final DailyAttendanceSummary summary = new DailyAttendanceSummary(UUID.randomUUID(), DAY);
+
+    private ZonedDateTime at(int hour, int minute) {
+        return DAY.atTime(hour, minute).atZone(ZONE);
+    }
+
+    @Test
+    @DisplayName("adds each closed session to the worked minutes and counts overtime past the standard day")
+    void pairsSessions() {
+        summary.apply(TIME_IN, at(8, 55), SCHEDULE);
+        summary.apply(TIME_OUT, at(12, 0), SCHEDULE);
+        summary.apply(TIME_IN, at(13, 0), SCHEDULE);
+        summary.apply(TIME_OUT, at(19, 0), SCHEDULE);
+
+        assertThat(summary.getSessions()).isEqualTo(2);
+        assertThat(summary.getWorkedMinutes()).isEqualTo(185 + 360);
+        assertThat(summary.getOvertimeMinutes()).isEqualTo(185 + 360 - 480);
+        assertThat(summary.getLateMinutes()).isZero();
+        assertThat(summary.getOpenSince()).isNull();
+        assertThat(summary.getLastOut()).isEqualTo(at(19, 0));
+    }
+
+    @Test
+    @DisplayName("counts late minutes from the shift start once past the grace period")
+    void lateAfterGrace() {
+        summary.apply(TIME_IN, at(9, 20), SCHEDULE);
+
+        assertThat(summary.getLateMinutes()).isEqualTo(20);
+        assertThat(summary.getOpenSince()).isEqualTo(at(9, 20));
+        assertThat(summary.getWorkedMinutes()).isZero();
+    }
+
+    @Test
+    @DisplayName("ignores a time-out without an open session")
+    void ignoresUnmatchedTimeOut() {
+        summary.apply(TIME_IN, at(9, 0), SCHEDULE);
+        summary.apply(TIME_OUT, at(17, 0), SCHEDULE);
+        summary.apply(TIME_OUT, at(18, 0), SCHEDULE);
+
+        assertThat(summary.getSessions()).isEqualTo(1);
+        assertThat(summary.getWorkedMinutes()).isEqualTo(480);
+        assertThat(summary.getLastOut()).isEqualTo(at(17, 0));
+    }
+
+    @Test
+    @DisplayName("skips a punch it has already applied")
+    void skipsReplayedPunch() {
+        summary.apply(TIME_IN, at(9, 0), SCHEDULE);
+        summary.apply(TIME_OUT, at(17, 0), SCHEDULE);
+
+        assertThat(summary.apply(TIME_OUT, at(17, 0), SCHEDULE)).isFalse();
+        assertThat(summary.apply(TIME_IN, at(9, 0), SCHEDULE)).isFalse();
+        assertThat(summary.getWorkedMinutes()).isEqualTo(480);
+        assertThat(summary.getSessions()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,148 @@
+package com.bundyclock.domain.attendance;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link PunchStateCache}.
+ */
+@DisplayName("PunchStateCache")
+class PunchStateCacheTest {
+
+    private final AttendanceLogRepository repository = mock(AttendanceLogRepository.class);
+    private final Clock clock = Clock.systemDefaultZone();
+    private PunchStateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PunchStateCache(repository, clock, Duration.ofHours(16));
+    }
+
+    private AttendanceLog log(UUID employeeId, AttendanceLog.AttendanceType type, ZonedDateTime timestamp) {
+        return AttendanceLog.builder()
+                .id(UUID.randomUUID())
+                .employeeId(employeeId)
+                .type(type)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    @Test
+    @DisplayName("keeps the latest punch per employee when warming")
+    void warmsLatestPunch() {
+        UUID employeeId = UUID.randomUUID();
+        ZonedDateTime now = ZonedDateTime.now();
+        when(repository.findByTimestampBetweenOrderByTimestampDesc(any(), any())).thenReturn(List.of(
+                log(employeeId, AttendanceLog.AttendanceType.TIME_OUT, now),
+                log(employeeId, AttendanceLog.AttendanceType.TIME_IN, now.minusSeconds(5))));
+
+        cache.warm();
+
+        assertThat(cache.get(employeeId)).map(PunchStateCache.PunchState::type)
+                .contains(AttendanceLog.AttendanceType.TIME_OUT);
+    }
+
+    @Test
+    @DisplayName("answers misses from memory once warmed")
+    void missAfterWarmDoesNotQuery() {
+        when(repository.findByTimestampBetweenOrderByTimestampDesc(any(), any())).thenReturn(List.of());
+        cache.warm();
+
+        assertThat(cache.get(UUID.randomUUID())).isEmpty();
+        verify(repository, never()).findTopByEmployeeIdAndTimestampAfterOrderByTimestampDesc(any(), any());
+    }
+
+    @Test
+    @DisplayName("falls back to the database before warming")
+    void missBeforeWarmQueries() {
+        UUID employeeId = UUID.randomUUID();
+        when(repository.findTopByEmployeeIdAndTimestampAfterOrderByTimestampDesc(any(), any()))
+                .thenReturn(Optional.of(log(employeeId, AttendanceLog.AttendanceType.TIME_IN, ZonedDateTime.now())));
+
+        assertThat(cache.get(employeeId)).isPresent();
+    }
+
+    @Test
+    @DisplayName("ignores and evicts punches from a previous day")
+    void ignoresPreviousDay() {
+        when(repository.findByTimestampBetweenOrderByTimestampDesc(any(), any())).thenReturn(List.of());
+        cache.warm();
+        UUID employeeId = UUID.randomUUID();
+        cache.update(log(employeeId, AttendanceLog.AttendanceType.TIME_IN, ZonedDateTime.now().minusDays(1)));
+
+        assertThat(cache.get(employeeId)).isEmpty();
+        cache.evictPreviousDays();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("keeps a time-in from before midnight open for up to max-shift")
+    void keepsOvernightTimeIn() {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate day = LocalDate.of(2025, 3, 3);
+        PunchStateCache morning = new PunchStateCache(repository,
+                Clock.fixed(day.plusDays(1).atTime(6, 0).atZone(zone).toInstant(), zone), Duration.ofHours(16));
+        when(repository.findByTimestampBetweenOrderByTimestampDesc(any(), any())).thenReturn(List.of());
+        morning.warm();
+        UUID nightShift = UUID.randomUUID();
+        UUID dayShift = UUID.randomUUID();
+        UUID stale = UUID.randomUUID();
+        morning.update(log(nightShift, AttendanceLog.AttendanceType.TIME_IN, day.atTime(22, 0).atZone(zone)));
+        morning.update(log(dayShift, AttendanceLog.AttendanceType.TIME_OUT, day.atTime(23, 0).atZone(zone)));
+        morning.update(log(stale, AttendanceLog.AttendanceType.TIME_IN, day.atTime(8, 0).atZone(zone)));
+
+        assertThat(morning.get(nightShift)).map(PunchStateCache.PunchState::type)
+                .contains(AttendanceLog.AttendanceType.TIME_IN);
+        assertThat(morning.get(dayShift)).isEmpty();
+        assertThat(morning.get(stale)).isEmpty();
+        morning.evictPreviousDays();
+        assertThat(morning.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("serialises check-then-record for the same employee")
+    void lockedIsMutuallyExclusive() throws Exception {
+        when(repository.findByTimestampBetweenOrderByTimestampDesc(any(), any())).thenReturn(List.of());
+        cache.warm();
+        UUID employeeId = UUID.randomUUID();
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(() -> cache.locked(employeeId, () -> {
+                    if (cache.get(employeeId).isPresent()) return false;
+                    Thread.yield();
+                    cache.update(log(employeeId, AttendanceLog.AttendanceType.TIME_IN, ZonedDateTime.now()));
+                    return true;
+                })));
+            }
+        }
+
+        long recorded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) recorded++;
+        }
+        assertThat(recorded).isEqualTo(1);
+    }
+}
@@ -0,0 +1,128 @@
+package com.bundyclock.domain.attendance;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static com.bundyclock.domain.attendance.AttendanceLog.AttendanceType.TIME_IN;
+import static com.bundyclock.domain.attendance.AttendanceLog.AttendanceType.TIME_OUT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link TimesheetEngine}, against an in-memory summary table.
+ */
+@DisplayName("TimesheetEngine")
+class TimesheetEngineTest {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    private final DailyAttendanceSummaryRepository repository = mock(DailyAttendanceSummaryRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final Map<DailyAttendanceSummary.Key, DailyAttendanceSummary> table = new HashMap<>();
+    private final UUID employeeId = UUID.randomUUID();
+    private TimesheetEngine engine;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(repository.findById(any())).thenAnswer(invocation ->
+                Optional.ofNullable(table.get((DailyAttendanceSummary.Key) invocation.getArgument(0))));
+        when(repository.save(any())).thenAnswer(invocation -> {
+            DailyAttendanceSummary summary = invocation.getArgument(0);
+            table.put(summary.getId(), summary);
+            return summary;
+        });
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            ((Iterable<DailyAttendanceSummary>) invocation.getArgument(0))
+                    .forEach(summary -> table.put(summary.getId(), summary));
+            return List.of();
+        });
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        engine = new TimesheetEngine(repository, jdbcTemplate, transactionTemplate,
+                "09:00", Duration.ofMinutes(5), Duration.ofHours(8), true);
+    }
+
+    private static ZonedDateTime at(LocalDate date, int hour) {
+        return date.atTime(hour, 0).atZone(ZONE);
+    }
+
+    private DailyAttendanceSummary summary(LocalDate date) {
+        return table.get(new DailyAttendanceSummary.Key(employeeId, date));
+    }
+
+    @Test
+    @DisplayName("credits a 22:00 to 06:00 shift to the day it started")
+    void overnightShift() {
+        engine.apply(employeeId, TIME_IN, at(DAY, 22));
+        engine.apply(employeeId, TIME_OUT, at(DAY.plusDays(1), 6));
+
+        assertThat(summary(DAY).getWorkedMinutes()).isEqualTo(480);
+        assertThat(summary(DAY).getSessions()).isEqualTo(1);
+        assertThat(summary(DAY).getOpenSince()).isNull();
+        assertThat(summary(DAY).getLastOut()).isEqualTo(at(DAY.plusDays(1), 6));
+        assertThat(summary(DAY.plusDays(1))).isNull();
+    }
+
+    @Test
+    @DisplayName("closes the same day's session before an older open one, and ignores a replayed overnight time-out")
+    void sameDayFirst() {
+        engine.apply(employeeId, TIME_IN, at(DAY, 22));
+        engine.apply(employeeId, TIME_OUT, at(DAY.plusDays(1), 6));
+        engine.apply(employeeId, TIME_OUT, at(DAY.plusDays(1), 6));
+        engine.apply(employeeId, TIME_IN, at(DAY.plusDays(1), 9));
+        engine.apply(employeeId, TIME_OUT, at(DAY.plusDays(1), 17));
+
+        assertThat(summary(DAY).getWorkedMinutes()).isEqualTo(480);
+        assertThat(summary(DAY.plusDays(1)).getWorkedMinutes()).isEqualTo(480);
+        assertThat(summary(DAY.plusDays(1)).getSessions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("backfills a 22:00 to 06:00 shift onto the day it started")
+    void backfillsOvernightShift() throws Exception {
+        ResultSet rows = mock(ResultSet.class);
+        when(rows.getObject(1, UUID.class)).thenReturn(employeeId);
+        when(rows.getString(2)).thenReturn("TIME_IN", "TIME_OUT");
+        when(rows.getObject(3, OffsetDateTime.class)).thenReturn(
+                at(DAY, 22).toOffsetDateTime(), at(DAY.plusDays(1), 6).toOffsetDateTime());
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rows);
+            handler.processRow(rows);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        engine.backfill();
+
+        assertThat(summary(DAY).getWorkedMinutes()).isEqualTo(480);
+        assertThat(summary(DAY).getSessions()).isEqualTo(1);
+        assertThat(summary(DAY.plusDays(1))).isNull();
+    }
+}
@@ -1,5 +1,6 @@
 package com.bundyclock.domain.employee;
 
+import com.bundyclock.common.dto.PageResponse;
 import com.bundyclock.common.exception.ResourceNotFoundException;
 import com.bundyclock.config.SecurityConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,9 +12,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -45,6 +49,9 @@ class EmployeeControllerTest {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeImportService employeeImportService;
+
     // -------------------------------------------------------------------------
     // Helpers
     // -------------------------------------------------------------------------
@@ -65,30 +72,52 @@ class EmployeeControllerTest {
 
     @Nested
     @DisplayName("GET /api/employees")
-    class GetAllEmployees {
+    class SearchEmployees {
+
+        private PageResponse<EmployeeSummary> page(List<EmployeeSummary> items) {
+            return PageResponse.<EmployeeSummary>builder()
+                    .items(items)
+                    .page(0)
+                    .size(20)
+                    .totalElements(items.size())
+                    .totalPages(items.isEmpty() ? 0 : 1)
+                    .build();
+        }
 
         @Test
-        @DisplayName("returns 200 with list of employees")
-        void returnsAllEmployees() throws Exception {
+        @DisplayName("returns 200 with a page of employee summaries")
+        void returnsPageOfEmployees() throws Exception {
             UUID id = UUID.randomUUID();
-            when(employeeService.getAllEmployees()).thenReturn(List.of(sampleEmployee(id)));
+            when(employeeService.searchEmployees("ali", "Engineering", 0, 20, "name", "asc")).thenReturn(page(List.of(
+                    new EmployeeSummary(id, "Alice Reyes", "EMP-001", "Engineering", "alice@example.com"))));
 
-            mockMvc.perform(get("/api/employees"))
+            mockMvc.perform(get("/api/employees").param("q", "ali").param("department", "Engineering"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.success").value(true))
-                    .andExpect(jsonPath("$.data", hasSize(1)))
-                    .andExpect(jsonPath("$.data[0].name").value("Alice Reyes"))
-                    .andExpect(jsonPath("$.data[0].employeeCode").value("EMP-001"));
+                    .andExpect(jsonPath("$.data.items", hasSize(1)))
+                    .andExpect(jsonPath("$.data.items[0].name").value("Alice Reyes"))
+                    .andExpect(jsonPath("$.data.items[0].employeeCode").value("EMP-001"))
+                    .andExpect(jsonPath("$.data.totalElements").value(1));
         }
 
         @Test
-        @DisplayName("returns 200 with empty list when no employees exist")
-        void returnsEmptyList() throws Exception {
-            when(employeeService.getAllEmployees()).thenReturn(List.of());
+        @DisplayName("returns 200 with an empty page when no employees match")
+        void returnsEmptyPage() throws Exception {
+            when(employeeService.searchEmployees(null, null, 0, 20, "name", "asc")).thenReturn(page(List.of()));
 
             mockMvc.perform(get("/api/employees"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.data", hasSize(0)));
+                    .andExpect(jsonPath("$.data.items", hasSize(0)));
+        }
+
+        @Test
+        @DisplayName("returns 400 for an unsupported sort field")
+        void returns400ForUnsupportedSort() throws Exception {
+            when(employeeService.searchEmployees(null, null, 0, 20, "email", "asc"))
+                    .thenThrow(new IllegalArgumentException("Cannot sort by email"));
+
+            mockMvc.perform(get("/api/employees").param("sort", "email"))
+                    .andExpect(status().isBadRequest());
         }
     }
 
@@ -125,6 +154,37 @@ class EmployeeControllerTest {
         }
     }
 
+    // -------------------------------------------------------------------------
+    // GET /api/employees/code/{employeeCode}
+    // -------------------------------------------------------------------------
+
+    @Nested
+    @DisplayName("GET /api/employees/code/{employeeCode}")
+    class GetEmployeeByCode {
+
+        @Test
+        @DisplayName("returns 200 with the employee holding the code")
+        void returnsEmployeeByCode() throws Exception {
+            UUID id = UUID.randomUUID();
+            when(employeeService.getEmployeeByCode("EMP-001")).thenReturn(sampleEmployee(id));
+
+            mockMvc.perform(get("/api/employees/code/{employeeCode}", "EMP-001"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.id").value(id.toString()))
+                    .andExpect(jsonPath("$.data.employeeCode").value("EMP-001"));
+        }
+
+        @Test
+        @DisplayName("returns 404 when no employee has the code")
+        void returns404ForUnknownCode() throws Exception {
+            when(employeeService.getEmployeeByCode("EMP-999"))
+                    .thenThrow(new ResourceNotFoundException("Employee not found with code: EMP-999"));
+
+            mockMvc.perform(get("/api/employees/code/{employeeCode}", "EMP-999"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
     // -------------------------------------------------------------------------
     // POST /api/employees
     // -------------------------------------------------------------------------
@@ -245,4 +305,90 @@ class EmployeeControllerTest {
                     .andExpect(status().isNotFound());
         }
     }
+
+    // -------------------------------------------------------------------------
+    // POST /api/employees/import, GET /api/employees/import/{jobId}
+    // -------------------------------------------------------------------------
+
+    @Nested
+    @DisplayName("POST /api/employees/import")
+    class ImportEmployees {
+
+        private final MockMultipartFile csv = new MockMultipartFile("file", "employees.csv", "text/csv",
+                "name,employeeCode,department,email\nAlice Reyes,EMP-001,Engineering,alice@example.com\n"
+                        .getBytes(StandardCharsets.UTF_8));
+
+        private EmployeeImportStatus status(UUID jobId, EmployeeImportStatus.State state) {
+            return EmployeeImportStatus.builder()
+                    .jobId(jobId)
+                    .state(state)
+                    .totalRows(1)
+                    .errors(List.of())
+                    .startedAt(Instant.now())
+                    .build();
+        }
+
+        @Test
+        @DisplayName("returns 202 with the queued job")
+        void startsImport() throws Exception {
+            UUID jobId = UUID.randomUUID();
+            when(employeeImportService.startImport(any(), any()))
+                    .thenReturn(status(jobId, EmployeeImportStatus.State.QUEUED));
+
+            mockMvc.perform(multipart("/api/employees/import")
+                            .file(csv)
+                            .file(new MockMultipartFile("photos", "photos.zip", "application/zip", new byte[]{1})))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.message").value("Import started"))
+                    .andExpect(jsonPath("$.data.jobId").value(jobId.toString()))
+                    .andExpect(jsonPath("$.data.state").value("QUEUED"))
+                    .andExpect(jsonPath("$.data.totalRows").value(1));
+        }
+
+        @Test
+        @DisplayName("returns 400 when the CSV cannot be read")
+        void returns400ForBadCsv() throws Exception {
+            when(employeeImportService.startImport(any(), any()))
+                    .thenThrow(new IllegalArgumentException("The CSV header must include name and employeeCode columns"));
+
+            mockMvc.perform(multipart("/api/employees/import").file(csv))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("returns 200 with progress and per-row errors")
+        void returnsProgress() throws Exception {
+            UUID jobId = UUID.randomUUID();
+            EmployeeImportStatus progress = EmployeeImportStatus.builder()
+                    .jobId(jobId)
+                    .state(EmployeeImportStatus.State.ENROLLING)
+                    .totalRows(3)
+                    .inserted(2)
+                    .photos(2)
+                    .enrolled(1)
+                    .failed(1)
+                    .errors(List.of(new EmployeeImportStatus.RowError(4, "EMP-001", "Duplicate employee code in file")))
+                    .startedAt(Instant.now())
+                    .build();
+            when(employeeImportService.getImport(jobId)).thenReturn(progress);
+
+            mockMvc.perform(get("/api/employees/import/{jobId}", jobId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.state").value("ENROLLING"))
+                    .andExpect(jsonPath("$.data.inserted").value(2))
+                    .andExpect(jsonPath("$.data.errors", hasSize(1)))
+                    .andExpect(jsonPath("$.data.errors[0].row").value(4));
+        }
+
+        @Test
+        @DisplayName("returns 404 for an unknown job")
+        void returns404ForUnknownJob() throws Exception {
+            UUID jobId = UUID.randomUUID();
+            when(employeeImportService.getImport(jobId))
+                    .thenThrow(new ResourceNotFoundException("Import job not found: " + jobId));
+
+            mockMvc.perform(get("/api/employees/import/{jobId}", jobId))
+                    .andExpect(status().isNotFound());
+        }
+    }
 }
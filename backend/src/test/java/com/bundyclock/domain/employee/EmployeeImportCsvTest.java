@@ -0,0 +1,48 @@
+package com.bundyclock.domain.employee;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the bulk-import CSV reader.
+ */
+@DisplayName("EmployeeImportCsv")
+class EmployeeImportCsvTest {
+
+    @Test
+    @DisplayName("maps columns by header name in any order")
+    void mapsColumnsByHeader() throws IOException {
+        List<EmployeeImportCsv.Row> rows = EmployeeImportCsv.read(new StringReader(
+                "email,Employee_Code,name\r\nalice@example.com,EMP-001,Alice Reyes\r\n"));
+
+        assertThat(rows).containsExactly(
+                new EmployeeImportCsv.Row(2, "Alice Reyes", "EMP-001", null, "alice@example.com", null));
+    }
+
+    @Test
+    @DisplayName("unquotes fields with commas, escaped quotes and line breaks")
+    void readsQuotedFields() throws IOException {
+        List<EmployeeImportCsv.Row> rows = EmployeeImportCsv.read(new StringReader(
+                "name,employeeCode,department\n\"Reyes, \"\"Ali\"\"\",EMP-001,\"R&D\nLab\"\n\nBob,EMP-002,\n"));
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).name()).isEqualTo("Reyes, \"Ali\"");
+        assertThat(rows.get(0).department()).isEqualTo("R&D\nLab");
+        assertThat(rows.get(1).line()).isEqualTo(5);
+        assertThat(rows.get(1).department()).isNull();
+    }
+
+    @Test
+    @DisplayName("rejects a header without the required columns")
+    void rejectsMissingColumns() {
+        assertThatThrownBy(() -> EmployeeImportCsv.read(new StringReader("name,email\nAlice,a@example.com\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,42 @@
+package com.bundyclock.domain.face;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Unit tests for {@link EmbeddingCodec}.
+ */
+@DisplayName("EmbeddingCodec")
+class EmbeddingCodecTest {
+
+    private final float[] vector = {0.125f, -1.5f, 3.0e-3f, 0f, 42.25f};
+
+    @Test
+    @DisplayName("float32 round-trips exactly in little-endian layout")
+    void float32RoundTrip() {
+        byte[] bytes = EmbeddingCodec.encode(vector, EmbeddingCodec.Format.FLOAT32);
+
+        assertThat(bytes).hasSize(1 + vector.length * Float.BYTES);
+        assertThat(ByteBuffer.wrap(bytes, 1, 4).order(ByteOrder.LITTLE_ENDIAN).getFloat())
+                .isEqualTo(vector[0]);
+        assertThat(EmbeddingCodec.decode(bytes)).containsExactly(vector);
+    }
+
+    @Test
+    @DisplayName("float16 halves the payload and stays within half precision")
+    void float16RoundTrip() {
+        byte[] bytes = EmbeddingCodec.encode(vector, EmbeddingCodec.Format.FLOAT16);
+
+        assertThat(bytes).hasSize(1 + vector.length * Short.BYTES);
+        float[] decoded = EmbeddingCodec.decode(bytes);
+        for (int i = 0; i < vector.length; i++) {
+            assertThat(decoded[i]).isCloseTo(vector[i], offset(Math.abs(vector[i]) * 1e-3f + 1e-4f));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.bundyclock.domain.face;
+
+import com.bundyclock.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link FaceCircuitBreaker}.
+ */
+@DisplayName("FaceCircuitBreaker")
+class FaceCircuitBreakerTest {
+
+    private static final Duration FAST = Duration.ofMillis(50);
+
+    private final MutableClock clock = new MutableClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FaceCircuitBreaker breaker = new FaceCircuitBreaker(meterRegistry, true, 10, 4, 0.5,
+            Duration.ofSeconds(2), Duration.ofSeconds(30), 2, clock);
+
+    private void succeed() {
+        breaker.acquirePermission();
+        breaker.onSuccess(FAST);
+    }
+
+    private void fail() {
+        breaker.acquirePermission();
+        breaker.onFailure();
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) fail();
+        assertThat(breaker.state()).isEqualTo(FaceCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("stays closed until the minimum number of calls is reached")
+    void needsMinimumCalls() {
+        fail();
+        fail();
+        fail();
+
+        assertThat(breaker.state()).isEqualTo(FaceCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("stays closed while the failure rate is below the threshold")
+    void belowThreshold() {
+        for (int i = 0; i < 6; i++) succeed();
+        for (int i = 0; i < 4; i++) fail();
+
+        assertThat(breaker.state()).isEqualTo(FaceCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("counts slow calls as failures")
+    void slowCallsFail() {
+        for (int i = 0; i < 4; i++) {
+            breaker.acquirePermission();
+            breaker.onSuccess(Duration.ofSeconds(3));
+        }
+
+        assertThat(breaker.state()).isEqualTo(FaceCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("refuses calls while open, with Retry-After set to the time left")
+    void failsFastWhenOpen() {
+        open();
+        clock.advance(Duration.ofSeconds(10));
+
+        assertThatThrownBy(breaker::acquirePermission)
+                .isInstanceOfSatisfying(ServiceUnavailableException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(20)));
+        assertThat(meterRegistry.counter("face.client.circuit.rejected").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("face.client.circuit.state").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("lets a limited number of probes through once the open period ends, and closes when they succeed")
+    void halfOpenCloses() {
+        open();
+        clock.advance(Duration.ofSeconds(30));
+
+        breaker.acquirePermission();
+        breaker.acquirePermission();
+        assertThat(breaker.state()).isEqualTo(FaceCircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(breaker::acquirePermission).isInstanceOf(ServiceUnavailableException.class);
+
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+
+        assertThat(breaker.state()).isEqualTo(FaceCircuitBreaker.State.CLOSED);
+        succeed();
+    }
+
+    @Test
+    @DisplayName("opens again when a probe fails")
+    void halfOpenReopens() {
+        open();
+        clock.advance(Duration.ofSeconds(30));
+
+        fail();
+
+        assertThat(breaker.state()).isEqualTo(FaceCircuitBreaker.State.OPEN);
+        assertThatThrownBy(breaker::acquirePermission).isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    @DisplayName("a cancelled probe frees its place for another")
+    void cancelledProbe() {
+        open();
+        clock.advance(Duration.ofSeconds(30));
+        breaker.acquirePermission();
+        breaker.acquirePermission();
+
+        breaker.onCancelled();
+
+        breaker.acquirePermission();
+        assertThat(breaker.state()).isEqualTo(FaceCircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    @DisplayName("never refuses a call when disabled")
+    void disabled() {
+        FaceCircuitBreaker off = new FaceCircuitBreaker(new SimpleMeterRegistry(), false, 10, 4, 0.5,
+                Duration.ofSeconds(2), Duration.ofSeconds(30), 2, clock);
+        for (int i = 0; i < 10; i++) {
+            off.acquirePermission();
+            off.onFailure();
+        }
+
+        assertThat(off.state()).isEqualTo(FaceCircuitBreaker.State.CLOSED);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-05T08:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.bundyclock.domain.face;
 
+import com.bundyclock.common.exception.ServiceUnavailableException;
 import com.bundyclock.config.SecurityConfig;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -105,6 +106,19 @@ class FaceControllerTest {
                     .andExpect(status().isInternalServerError())
                     .andExpect(jsonPath("$.success").value(false));
         }
+
+        @Test
+        @DisplayName("returns 503 when too many calls are in flight to the face-recognition service")
+        void returns503WhenServiceBusy() throws Exception {
+            when(faceService.verify(any()))
+                    .thenThrow(new ServiceUnavailableException("Face recognition service is busy, please retry"));
+
+            mockMvc.perform(multipart("/api/face/verify")
+                            .file(sampleImagePart()))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists("Retry-After"))
+                    .andExpect(jsonPath("$.success").value(false));
+        }
     }
 
     // -------------------------------------------------------------------------
@@ -123,7 +137,7 @@ class FaceControllerTest {
                     .id(UUID.randomUUID())
                     .employeeId(employeeId)
                     .modelUsed("DeepFace")
-                    .embeddingVector("[0.1, 0.2, 0.3]")
+                    .embedding(new float[]{0.1f, 0.2f, 0.3f})
                     .build();
             when(faceService.registerFace(eq(employeeId), any())).thenReturn(embedding);
 
@@ -0,0 +1,139 @@
+package com.bundyclock.domain.face;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes on the wire and verify latency with and without preprocessing.
+ * Excluded from {@code test}; run with {@code ./gradlew benchmark}.
+ *
+ * <p>Each iteration prepares a 1920×1080 webcam-sized JPEG and posts it to the
+ * face service. By default that is a local stub which reads the upload at
+ * {@code bench.bandwidth.mbps} (100) to stand in for the LAN hop, and answers
+ * with a fixed embedding, so the figures isolate transfer cost. Point
+ * {@code bench.face.url} at a running face service to include decoding and
+ * inference there as well.
+ */
+@Tag("benchmark")
+@DisplayName("FaceImagePreprocessor benchmark")
+class FaceImagePreprocessorBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 100);
+    private static final int BANDWIDTH_MBPS = Integer.getInteger("bench.bandwidth.mbps", 100);
+    private static final String EMBEDDING_RESPONSE =
+            "{\"success\":true,\"embedding\":[0.1,0.2,0.3,0.4],\"model\":\"stub\",\"message\":\"ok\"}";
+
+    private static HttpServer stub;
+    private static FaceRecognitionClient client;
+    private static MockMultipartFile frame;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        String url = System.getProperty("bench.face.url");
+        if (url == null) {
+            stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            stub.createContext("/represent-face", exchange -> {
+                throttledDrain(exchange.getRequestBody());
+                byte[] response = EMBEDDING_RESPONSE.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, response.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response);
+                }
+            });
+            stub.start();
+            url = "http://127.0.0.1:" + stub.getAddress().getPort();
+        }
+
+        client = new FaceRecognitionClient(new RestTemplate(), new FaceCircuitBreaker(new SimpleMeterRegistry(),
+                false, 20, 10, 0.5, Duration.ofSeconds(5), Duration.ofSeconds(30), 3));
+        ReflectionTestUtils.setField(client, "faceServiceUrl", url);
+        ReflectionTestUtils.setField(client, "representEndpoint", "/represent-face");
+        ReflectionTestUtils.setField(client, "queueTimeout", Duration.ofSeconds(5));
+        client.setMaxInFlight(1);
+
+        frame = new MockMultipartFile("image", "frame.jpg", "image/jpeg",
+                FaceImagePreprocessor.encodeJpeg(FaceImagePreprocessorTest.frame(1920, 1080), 0.92f));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (stub != null) stub.stop(0);
+    }
+
+    @Test
+    @DisplayName("verify round trip, original upload")
+    void original() throws IOException {
+        run("original", new FaceImagePreprocessor(new SimpleMeterRegistry(), false, 640, 0.85f, 20, 8));
+    }
+
+    @Test
+    @DisplayName("verify round trip, preprocessed upload")
+    void preprocessed() throws IOException {
+        run("preprocessed", new FaceImagePreprocessor(new SimpleMeterRegistry(), true, 640, 0.85f, 20, 8));
+    }
+
+    private void run(String label, FaceImagePreprocessor preprocessor) throws IOException {
+        for (int i = 0; i < 10; i++) {
+            client.represent(preprocessor.prepare(frame));
+        }
+
+        long[] latencies = new long[ITERATIONS];
+        long sent = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            Resource prepared = preprocessor.prepare(frame);
+            float[] embedding = client.represent(prepared);
+            latencies[i] = System.nanoTime() - start;
+            sent += prepared.contentLength();
+            assertThat(embedding).isNotNull();
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("%s: %,d B upload -> %,d B sent per verify; latency p50 %.1f ms, p95 %.1f ms, "
+                        + "mean %.1f ms over %d verifies%n",
+                label, frame.getSize(), sent / ITERATIONS,
+                latencies[ITERATIONS / 2] / 1e6, latencies[ITERATIONS * 95 / 100] / 1e6,
+                Arrays.stream(latencies).average().orElse(0) / 1e6, ITERATIONS);
+    }
+
+    /** Reads the request body no faster than the configured bandwidth. */
+    private static void throttledDrain(InputStream body) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        long start = System.nanoTime();
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            total += read;
+            long due = start + total * 8_000L / BANDWIDTH_MBPS;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
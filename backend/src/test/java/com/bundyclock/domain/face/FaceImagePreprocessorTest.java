@@ -0,0 +1,109 @@
+package com.bundyclock.domain.face;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link FaceImagePreprocessor}.
+ */
+@DisplayName("FaceImagePreprocessor")
+class FaceImagePreprocessorTest {
+
+    private final FaceImagePreprocessor preprocessor =
+            new FaceImagePreprocessor(new SimpleMeterRegistry(), true, 640, 0.85f, 20, 8);
+
+    /** A noisy gradient, which has the brightness and contrast of a lit webcam frame. */
+    static BufferedImage frame(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        Random random = new Random(7);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int v = Math.min(255, 40 + x * 180 / width + random.nextInt(30));
+                image.setRGB(x, y, (v << 16) | (v << 8) | (255 - v));
+            }
+        }
+        return image;
+    }
+
+    private static MockMultipartFile upload(BufferedImage image, String format) throws IOException {
+        byte[] bytes = format.equals("jpg")
+                ? FaceImagePreprocessor.encodeJpeg(image, 0.95f)
+                : pngBytes(image);
+        return new MockMultipartFile("image", "face." + format, "image/" + format, bytes);
+    }
+
+    private static byte[] pngBytes(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("scales a large frame down to the maximum dimension as a smaller JPEG")
+    void downscalesLargeFrame() throws IOException {
+        MockMultipartFile original = upload(frame(1920, 1080), "jpg");
+
+        byte[] prepared = preprocessor.prepare(original).getContentAsByteArray();
+
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(prepared));
+        assertThat(decoded.getWidth()).isEqualTo(640);
+        assertThat(decoded.getHeight()).isEqualTo(360);
+        assertThat(prepared.length).isLessThan(original.getBytes().length / 4);
+    }
+
+    @Test
+    @DisplayName("forwards a JPEG already within the limit unchanged")
+    void passesSmallJpegThrough() throws IOException {
+        MockMultipartFile original = upload(frame(480, 360), "jpg");
+
+        assertThat(preprocessor.prepare(original).getContentAsByteArray()).isEqualTo(original.getBytes());
+    }
+
+    @Test
+    @DisplayName("re-encodes a PNG as JPEG")
+    void reencodesPng() throws IOException {
+        byte[] prepared = preprocessor.prepare(upload(frame(320, 240), "png")).getContentAsByteArray();
+
+        assertThat(prepared[0] & 0xFF).isEqualTo(0xFF);
+        assertThat(prepared[1] & 0xFF).isEqualTo(0xD8);
+    }
+
+    @Test
+    @DisplayName("rejects dark and blank frames")
+    void rejectsDarkAndBlankFrames() {
+        BufferedImage dark = new BufferedImage(640, 480, BufferedImage.TYPE_3BYTE_BGR);
+        BufferedImage grey = new BufferedImage(640, 480, BufferedImage.TYPE_3BYTE_BGR);
+        for (int y = 0; y < 480; y++) {
+            for (int x = 0; x < 640; x++) {
+                grey.setRGB(x, y, 0x808080);
+            }
+        }
+
+        assertThatThrownBy(() -> preprocessor.prepare(upload(dark, "jpg")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("too dark");
+        assertThatThrownBy(() -> preprocessor.prepare(upload(grey, "jpg")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("blank");
+    }
+
+    @Test
+    @DisplayName("rejects data that is not an image")
+    void rejectsNonImage() {
+        MockMultipartFile garbage = new MockMultipartFile("image", "face.jpg", "image/jpeg", new byte[]{1, 2, 3});
+
+        assertThatThrownBy(() -> preprocessor.prepare(garbage)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.bundyclock.domain.face;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Unit tests for the flat {@link FaceMatcher} kernels.
+ *
+ * <p>Both kernels scan the same gallery, so they must agree on the best match.
+ */
+@DisplayName("FaceMatcher")
+class FaceMatcherTest {
+
+    private static final int DIMENSION = 512;
+
+    private final Random random = new Random(42);
+
+    @Test
+    @DisplayName("scalar and vectorized kernels return the same best match")
+    void kernelsAgree() {
+        FaceMatcher scalar = new ScalarFaceMatcher();
+        FaceMatcher vectorized = new VectorizedFaceMatcher();
+        for (int i = 0; i < 1_000; i++) {
+            UUID id = UUID.randomUUID();
+            float[] vector = randomUnitVector();
+            scalar.add(id, id, vector);
+            vectorized.add(id, id, vector);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            float[] probe = randomUnitVector();
+            FaceMatch expected = scalar.findBest(probe).orElseThrow();
+            FaceMatch actual = vectorized.findBest(probe).orElseThrow();
+            assertThat(actual.embeddingId()).isEqualTo(expected.embeddingId());
+            assertThat(actual.score()).isCloseTo(expected.score(), offset(1e-4f));
+        }
+    }
+
+    @Test
+    @DisplayName("finds the stored vector itself with similarity 1")
+    void findsExactVector() {
+        FaceMatcher matcher = new ScalarFaceMatcher();
+        UUID employeeId = UUID.randomUUID();
+        float[] target = randomUnitVector();
+        matcher.add(UUID.randomUUID(), employeeId, target);
+        for (int i = 0; i < 100; i++) {
+            matcher.add(UUID.randomUUID(), UUID.randomUUID(), randomUnitVector());
+        }
+
+        Optional<FaceMatch> best = matcher.findBest(target);
+
+        assertThat(best).isPresent();
+        assertThat(best.get().employeeId()).isEqualTo(employeeId);
+        assertThat(best.get().score()).isCloseTo(1f, offset(1e-4f));
+    }
+
+    @Test
+    @DisplayName("rejects vectors whose dimension differs from the gallery")
+    void rejectsWrongDimension() {
+        FaceMatcher matcher = new ScalarFaceMatcher();
+        matcher.add(UUID.randomUUID(), UUID.randomUUID(), randomUnitVector());
+
+        assertThat(matcher.add(UUID.randomUUID(), UUID.randomUUID(), new float[]{1f, 0f})).isFalse();
+        assertThat(matcher.findBest(new float[]{1f, 0f})).isEmpty();
+        assertThat(matcher.size()).isEqualTo(1);
+    }
+
+    private float[] randomUnitVector() {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return FaceVectors.normalize(vector);
+    }
+}
@@ -0,0 +1,177 @@
+package com.bundyclock.domain.face;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Heap allocated per forwarded upload, copied onto the heap first versus
+ * streamed from the part's temp file. Excluded from {@code test}; run with
+ * {@code ./gradlew benchmark}, adding {@code -Pbench.jfr=true} to record a
+ * flight recording of the run.
+ *
+ * <p>The upload is a {@code bench.upload.mb} (5) MB file on disk, read the way
+ * the servlet container's part is; the face service is a local stub that
+ * discards the body. Allocation is measured on the calling thread, which is
+ * the one that writes the request body.
+ */
+@Tag("benchmark")
+@DisplayName("Face upload allocation benchmark")
+class FaceUploadAllocationBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 200);
+    private static final int UPLOAD_MB = Integer.getInteger("bench.upload.mb", 5);
+    private static final String EMBEDDING_RESPONSE =
+            "{\"success\":true,\"embedding\":[0.1,0.2,0.3,0.4],\"model\":\"stub\",\"message\":\"ok\"}";
+
+    private static HttpServer stub;
+    private static FaceRecognitionClient client;
+    private static Path uploadFile;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/represent-face", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            byte[] response = EMBEDDING_RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        stub.start();
+
+        // The production request factory, which streams request bodies.
+        client = new FaceRecognitionClient(new RestTemplate(new HttpComponentsClientHttpRequestFactory()),
+                new FaceCircuitBreaker(new SimpleMeterRegistry(), false, 20, 10, 0.5, Duration.ofSeconds(5),
+                        Duration.ofSeconds(30), 3));
+        ReflectionTestUtils.setField(client, "faceServiceUrl", "http://127.0.0.1:" + stub.getAddress().getPort());
+        ReflectionTestUtils.setField(client, "representEndpoint", "/represent-face");
+        ReflectionTestUtils.setField(client, "queueTimeout", Duration.ofSeconds(5));
+        client.setMaxInFlight(1);
+
+        byte[] content = new byte[UPLOAD_MB * 1024 * 1024];
+        new Random(3).nextBytes(content);
+        uploadFile = Files.createTempFile("face-upload-", ".jpg");
+        Files.write(uploadFile, content);
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        stub.stop(0);
+        Files.deleteIfExists(uploadFile);
+    }
+
+    @Test
+    @DisplayName("upload copied onto the heap (getBytes)")
+    void buffered() {
+        run("buffered", upload -> {
+            try {
+                return new NamedByteArrayResource(upload.getBytes(), "face.jpg");
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("upload streamed from its temp file")
+    void streamed() {
+        run("streamed", UploadedImageResource::new);
+    }
+
+    private void run(String label, Function<MultipartFile, Resource> part) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        DiskMultipartFile upload = new DiskMultipartFile(uploadFile);
+        for (int i = 0; i < 20; i++) {
+            client.represent(part.apply(upload));
+        }
+
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertThat(client.represent(part.apply(upload))).isNotNull();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("%s: %d MB upload — %.2f MB allocated per request, %.1f ms per request%n",
+                label, UPLOAD_MB, allocated / 1e6 / ITERATIONS, seconds * 1000 / ITERATIONS);
+    }
+
+    /** A multipart file held on disk, read like the servlet container's {@code Part}. */
+    private record DiskMultipartFile(Path path) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "image";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return "face.jpg";
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/jpeg";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.copy(path, dest.toPath());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.bundyclock.domain.face;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link HnswFaceMatcher}.
+ *
+ * <p>The recall report is printed so the effect of {@code efSearch} is visible
+ * in the test output; the assertion only guards against a broken graph.
+ */
+@DisplayName("HnswFaceMatcher")
+class HnswFaceMatcherTest {
+
+    private static final int DIMENSION = 64;
+    private static final int GALLERY_SIZE = 2_000;
+
+    private final Random random = new Random(7);
+    private final List<UUID> employees = new ArrayList<>();
+    private final List<float[]> vectors = new ArrayList<>();
+    private HnswFaceMatcher matcher;
+
+    @BeforeEach
+    void buildGallery() {
+        matcher = new HnswFaceMatcher(16, 100, 64);
+        for (int i = 0; i < GALLERY_SIZE; i++) {
+            UUID employeeId = UUID.randomUUID();
+            float[] vector = randomUnitVector();
+            employees.add(employeeId);
+            vectors.add(vector);
+            matcher.add(UUID.randomUUID(), employeeId, vector);
+        }
+    }
+
+    @Test
+    @DisplayName("reaches high recall@1 against exact search")
+    void recallAgainstExactSearch() {
+        List<HnswFaceMatcher.RecallPoint> report = matcher.evaluate(200, new int[]{16, 64, 128}, 1L);
+
+        report.forEach(point -> System.out.printf("efSearch=%4d recall=%.3f mean=%.1fµs p99=%.1fµs%n",
+                point.efSearch(), point.recall(), point.meanMicros(), point.p99Micros()));
+        assertThat(report.get(report.size() - 1).recall()).isGreaterThanOrEqualTo(0.95);
+    }
+
+    @Test
+    @DisplayName("never returns vectors of a removed employee")
+    void removedEmployeeIsNotReturned() {
+        UUID removed = employees.get(0);
+        FaceMatch before = matcher.findBest(vectors.get(0)).orElseThrow();
+        assertThat(before.employeeId()).isEqualTo(removed);
+
+        assertThat(matcher.removeEmployee(removed)).isEqualTo(1);
+
+        assertThat(matcher.size()).isEqualTo(GALLERY_SIZE - 1);
+        assertThat(matcher.findBest(vectors.get(0)).orElseThrow().employeeId()).isNotEqualTo(removed);
+    }
+
+    private float[] randomUnitVector() {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return FaceVectors.normalize(vector);
+    }
+}
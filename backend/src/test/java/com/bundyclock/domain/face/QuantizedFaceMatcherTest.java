@@ -0,0 +1,73 @@
+package com.bundyclock.domain.face;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Unit tests for {@link QuantizedFaceMatcher}.
+ *
+ * <p>The exact vectors live in a map standing in for the database, so the
+ * reranked result can be compared with an exact scan.
+ */
+@DisplayName("QuantizedFaceMatcher")
+class QuantizedFaceMatcherTest {
+
+    private static final int DIMENSION = 256;
+
+    private final Random random = new Random(11);
+    private final Map<UUID, float[]> store = new HashMap<>();
+
+    @Test
+    @DisplayName("returns the exact best match and score after reranking")
+    void matchesExactSearch() {
+        QuantizedFaceMatcher quantized = new QuantizedFaceMatcher(this::load, 10, 0.02f);
+        ScalarFaceMatcher exact = new ScalarFaceMatcher();
+        float[][] gallery = new float[2_000][];
+        for (int i = 0; i < gallery.length; i++) {
+            UUID id = UUID.randomUUID();
+            gallery[i] = randomUnitVector();
+            store.put(id, gallery[i]);
+            quantized.add(id, id, gallery[i]);
+            exact.add(id, id, gallery[i]);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            float[] probe = noisyCopy(gallery[random.nextInt(gallery.length)]);
+            FaceMatch expected = exact.findBest(probe).orElseThrow();
+            FaceMatch actual = quantized.findBest(probe).orElseThrow();
+            assertThat(actual.embeddingId()).isEqualTo(expected.embeddingId());
+            assertThat(actual.score()).isCloseTo(expected.score(), offset(1e-5f));
+        }
+    }
+
+    private Map<UUID, float[]> load(Collection<UUID> ids) {
+        Map<UUID, float[]> result = new HashMap<>();
+        ids.forEach(id -> result.put(id, store.get(id)));
+        return result;
+    }
+
+    private float[] noisyCopy(float[] vector) {
+        float[] copy = vector.clone();
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] += (float) (random.nextGaussian() * 0.02);
+        }
+        return FaceVectors.normalize(copy);
+    }
+
+    private float[] randomUnitVector() {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return FaceVectors.normalize(vector);
+    }
+}
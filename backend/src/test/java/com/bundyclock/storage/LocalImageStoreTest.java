@@ -0,0 +1,155 @@
+package com.bundyclock.storage;
+
+import com.bundyclock.common.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link LocalImageStore}.
+ */
+@DisplayName("LocalImageStore")
+class LocalImageStoreTest {
+
+    @TempDir
+    Path root;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LocalImageStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new LocalImageStore(root, 1, 4, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        store.close();
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("stores an image under its SHA-256, sharded by the first two bytes")
+    void putShardsByKey() throws IOException {
+        StoredImage image = store.put(bytes("frame-1"));
+
+        assertThat(image.key()).isEqualTo(ImageStore.keyOf(bytes("frame-1"))).hasSize(64);
+        assertThat(image.tier()).isEqualTo(StoredImage.Tier.HOT);
+        assertThat(store.hotPath(image.key()))
+                .isEqualTo(root.resolve(image.key().substring(0, 2)).resolve(image.key().substring(2, 4))
+                        .resolve(image.key()))
+                .hasBinaryContent(bytes("frame-1"));
+        assertThat(store.get(image.key()).orElseThrow().getContentAsByteArray()).isEqualTo(bytes("frame-1"));
+    }
+
+    @Test
+    @DisplayName("stores a repeated frame once")
+    void putDeduplicates() throws IOException {
+        StoredImage first = store.put(bytes("frame-1"));
+        StoredImage second = store.put(bytes("frame-1"));
+
+        assertThat(second.key()).isEqualTo(first.key());
+        assertThat(meterRegistry.counter("image.store.writes", "result", "stored").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("image.store.writes", "result", "deduplicated").count()).isEqualTo(1);
+        try (Stream<StoredImage> images = store.list()) {
+            assertThat(images).hasSize(1);
+        }
+    }
+
+    @Test
+    @DisplayName("writes asynchronously")
+    void putAsync() throws Exception {
+        StoredImage image = store.putAsync(bytes("frame-1")).get(5, TimeUnit.SECONDS);
+
+        assertThat(store.head(image.key())).contains(image);
+    }
+
+    @Test
+    @DisplayName("reports how full the write queue is, and rejects writes beyond it")
+    void writeBacklog() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<StoredImage> blocked = store.putAsync(() -> {
+            release.await();
+            return bytes("frame-0");
+        });
+        List<CompletableFuture<StoredImage>> queued = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            queued.add(store.putAsync(bytes("frame-" + i)));
+        }
+
+        assertThat(store.writeBacklog()).isEqualTo(1.0);
+        assertThatThrownBy(() -> store.putAsync(bytes("frame-5")).join())
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<StoredImage> write : queued) {
+            write.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(store.writeBacklog()).isZero();
+    }
+
+    @Test
+    @DisplayName("archive replaces the content under the same key, and the original is still deduplicated")
+    void archiveMovesToColdTier() throws IOException {
+        StoredImage hot = store.put(bytes("frame-1 at full size"));
+
+        StoredImage cold = store.archive(hot.key(), bytes("small"));
+
+        assertThat(cold.key()).isEqualTo(hot.key());
+        assertThat(cold.tier()).isEqualTo(StoredImage.Tier.COLD);
+        assertThat(cold.size()).isEqualTo(5);
+        assertThat(store.get(hot.key()).orElseThrow().getContentAsByteArray()).isEqualTo(bytes("small"));
+        assertThat(store.put(bytes("frame-1 at full size")).tier()).isEqualTo(StoredImage.Tier.COLD);
+        try (Stream<StoredImage> images = store.list()) {
+            assertThat(images.map(StoredImage::tier).toList()).isEqualTo(List.of(StoredImage.Tier.COLD));
+        }
+    }
+
+    @Test
+    @DisplayName("archive of an unknown key is not found")
+    void archiveUnknown() {
+        assertThatThrownBy(() -> store.archive(ImageStore.keyOf(bytes("missing")), bytes("small")))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("list skips files that are not images, such as interrupted writes")
+    void listSkipsStrayFiles() throws IOException {
+        StoredImage image = store.put(bytes("frame-1"));
+        Files.writeString(store.hotPath(image.key()).resolveSibling(image.key() + "123.tmp"), "partial");
+
+        try (Stream<StoredImage> images = store.list()) {
+            assertThat(images.map(StoredImage::key).toList()).containsExactly(image.key());
+        }
+    }
+
+    @Test
+    @DisplayName("rejects keys that are not a SHA-256, so they cannot escape the root")
+    void rejectsInvalidKey() {
+        assertThatThrownBy(() -> store.get("../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.delete("ABC")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,31 @@
+package db.migration;
+
+import com.bundyclock.domain.face.EmbeddingCodec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the embedding encoding frozen into {@link V3__convert_embedding_vectors_to_bytea}.
+ */
+@DisplayName("V3__convert_embedding_vectors_to_bytea")
+class V3ConvertEmbeddingVectorsTest {
+
+    @Test
+    @DisplayName("writes the float32 tag followed by little-endian components")
+    void encodesFloat32() {
+        byte[] encoded = V3__convert_embedding_vectors_to_bytea.encodeFloat32(new float[]{1.0f, -2.0f});
+
+        assertThat(encoded).containsExactly(1, 0x00, 0x00, (byte) 0x80, 0x3F, 0x00, 0x00, 0x00, (byte) 0xC0);
+    }
+
+    @Test
+    @DisplayName("is still read back by the current codec")
+    void decodesWithCodec() {
+        float[] vector = {0.25f, -0.5f, 3.75f};
+
+        assertThat(EmbeddingCodec.decode(V3__convert_embedding_vectors_to_bytea.encodeFloat32(vector)))
+                .containsExactly(vector);
+    }
+}
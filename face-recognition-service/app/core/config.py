@@ -23,6 +23,9 @@ class Settings(BaseSettings):
     DEEPFACE_DISTANCE_METRIC: str = "cosine"
     CONFIDENCE_THRESHOLD: float = 0.6
 
+    # Batching — /represent-faces accepts at most this many images per request
+    MAX_BATCH_SIZE: int = 32
+
     class Config:
         env_file = ".env"
 
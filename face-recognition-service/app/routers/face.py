@@ -1,5 +1,10 @@
+from typing import List
+
 from fastapi import APIRouter, UploadFile, File, Form, HTTPException
-from app.schemas.face_schemas import VerifyFaceResponse, RegisterFaceResponse
+from app.core.config import settings
+from app.schemas.face_schemas import (
+    VerifyFaceResponse, RegisterFaceResponse, RepresentFaceResponse, RepresentFacesResponse,
+)
 from app.services import face_service
 import traceback
 import logging
@@ -47,3 +52,46 @@ async def register_face(
     except Exception as e:
         logger.error("register_face error: %s", traceback.format_exc())
         raise HTTPException(status_code=500, detail=f"{type(e).__name__}: {e}")
+
+
+@router.post("/represent-face", response_model=RepresentFaceResponse)
+async def represent_face(image: UploadFile = File(..., description="Face image (JPEG/PNG)")):
+    """
+    Compute the embedding vector of a captured face.
+    Used by the backend, which matches the vector against its in-memory gallery.
+    """
+    if not image.content_type.startswith("image/"):
+        raise HTTPException(status_code=400, detail="File must be an image")
+    try:
+        image_bytes = await image.read()
+        result = face_service.represent_face(image_bytes)
+        return RepresentFaceResponse(**result)
+    except HTTPException:
+        raise
+    except Exception as e:
+        logger.error("represent_face error: %s", traceback.format_exc())
+        raise HTTPException(status_code=500, detail=f"{type(e).__name__}: {e}")
+
+
+@router.post("/represent-faces", response_model=RepresentFacesResponse)
+async def represent_faces(
+    images: List[UploadFile] = File(..., description="Face images (JPEG/PNG), embedded in order"),
+):
+    """
+    Compute the embedding vectors of several captured faces in one call.
+    Results come back in the order of the images; an image without a face
+    gets success=false rather than failing the batch.
+    """
+    if len(images) > settings.MAX_BATCH_SIZE:
+        raise HTTPException(status_code=400, detail=f"At most {settings.MAX_BATCH_SIZE} images per request")
+    if any(not (image.content_type or "").startswith("image/") for image in images):
+        raise HTTPException(status_code=400, detail="Every file must be an image")
+    try:
+        image_bytes = [await image.read() for image in images]
+        results = face_service.represent_faces(image_bytes)
+        return RepresentFacesResponse(model=settings.DEEPFACE_MODEL, results=results)
+    except HTTPException:
+        raise
+    except Exception as e:
+        logger.error("represent_faces error: %s", traceback.format_exc())
+        raise HTTPException(status_code=500, detail=f"{type(e).__name__}: {e}")
@@ -1,5 +1,5 @@
 from pydantic import BaseModel
-from typing import Optional
+from typing import List, Optional
 import uuid
 
 
@@ -19,4 +19,23 @@ class RegisterFaceResponse(BaseModel):
     success: bool
     employee_id: str
     embedding_path: Optional[str] = None
+    embedding: Optional[List[float]] = None
     message: str
+
+
+class RepresentFaceResponse(BaseModel):
+    success: bool
+    embedding: Optional[List[float]] = None
+    model: str
+    message: str
+
+
+class RepresentFaceResult(BaseModel):
+    success: bool
+    embedding: Optional[List[float]] = None
+    message: str
+
+
+class RepresentFacesResponse(BaseModel):
+    model: str
+    results: List[RepresentFaceResult]
@@ -4,6 +4,8 @@ Face recognition service using DeepFace.
 Responsibilities:
 - Register a face: save image + compute/store embedding vector as .npy file
 - Verify a face: compare input image against all stored embeddings, return best match
+- Represent a face: compute the embedding of a probe image (matching is done by the backend)
+- Represent faces: the same for a batch of probe images, in one model call where DeepFace allows
 """
 
 import os
@@ -11,7 +13,7 @@ import json
 import uuid
 import logging
 from pathlib import Path
-from typing import Optional, Tuple
+from typing import List, Optional, Tuple
 
 import numpy as np
 
@@ -24,9 +26,9 @@ Path(settings.FACE_IMAGES_DIR).mkdir(parents=True, exist_ok=True)
 Path(settings.EMBEDDINGS_DIR).mkdir(parents=True, exist_ok=True)
 
 
-def _get_embedding(image_path: str) -> Optional[list]:
+def _get_embedding(image_path) -> Optional[list]:
     """
-    Generate face embedding using DeepFace.
+    Generate face embedding using DeepFace, from an image path or a decoded array.
     Returns list of floats or None if no face detected.
     """
     try:
@@ -44,6 +46,35 @@ def _get_embedding(image_path: str) -> Optional[list]:
     return None
 
 
+def _decode_image(image_bytes: bytes) -> Optional[np.ndarray]:
+    """Decode JPEG/PNG bytes into the BGR array DeepFace takes, or None if they are not an image."""
+    import cv2
+    return cv2.imdecode(np.frombuffer(image_bytes, dtype=np.uint8), cv2.IMREAD_COLOR)
+
+
+def _get_embeddings(images: List[np.ndarray]) -> List[Optional[list]]:
+    """
+    Generate embeddings for several decoded images, in order.
+    DeepFace >= 0.0.94 runs a list of images through the model as one batch. Older
+    releases reject a list, and with enforce_detection a single faceless image fails
+    the whole batch; either way we fall back to one call per image.
+    """
+    if len(images) > 1:
+        try:
+            from deepface import DeepFace
+            results = DeepFace.represent(
+                img_path=images,
+                model_name=settings.DEEPFACE_MODEL,
+                detector_backend=settings.DEEPFACE_DETECTOR,
+                enforce_detection=True,
+            )
+            if len(results) == len(images) and all(isinstance(r, list) and r for r in results):
+                return [r[0]["embedding"] for r in results]
+        except Exception as e:
+            logger.info("Batched DeepFace call failed, embedding one image at a time: %s", e)
+    return [_get_embedding(image) for image in images]
+
+
 def _cosine_similarity(a: list, b: list) -> float:
     """Return cosine similarity between two vectors (0–1, higher = more similar)."""
     a_arr = np.array(a)
@@ -94,10 +125,62 @@ def register_face(employee_id: str, image_bytes: bytes) -> dict:
         "success": True,
         "employee_id": employee_id,
         "embedding_path": emb_path,
+        "embedding": embedding,
         "message": f"Face registered successfully. ({len(existing_list)} photo(s) stored)",
     }
 
 
+def represent_face(image_bytes: bytes) -> dict:
+    """
+    Compute the embedding of a probe image without comparing it to anything.
+    The backend keeps the gallery in memory and does the matching itself.
+    """
+    tmp_path = os.path.join(settings.FACE_IMAGES_DIR, f"probe_{uuid.uuid4().hex}.jpg")
+    try:
+        with open(tmp_path, "wb") as f:
+            f.write(image_bytes)
+
+        embedding = _get_embedding(tmp_path)
+        if embedding is None:
+            return {
+                "success": False,
+                "embedding": None,
+                "model": settings.DEEPFACE_MODEL,
+                "message": "No face detected in the probe image.",
+            }
+        return {
+            "success": True,
+            "embedding": embedding,
+            "model": settings.DEEPFACE_MODEL,
+            "message": "Embedding computed.",
+        }
+    finally:
+        if os.path.exists(tmp_path):
+            os.remove(tmp_path)
+
+
+def represent_faces(images: List[bytes]) -> List[dict]:
+    """
+    Compute the embeddings of several probe images, returned in the order given.
+    Images are decoded in memory; no temp files are written.
+    """
+    decoded = [_decode_image(image_bytes) for image_bytes in images]
+    valid = [i for i, image in enumerate(decoded) if image is not None]
+    embeddings = dict(zip(valid, _get_embeddings([decoded[i] for i in valid]))) if valid else {}
+
+    results = []
+    for i in range(len(images)):
+        if decoded[i] is None:
+            results.append({"success": False, "embedding": None, "message": "Could not decode the image."})
+        elif embeddings.get(i) is None:
+            results.append({"success": False, "embedding": None, "message": "No face detected in the probe image."})
+        else:
+            results.append({"success": True, "embedding": embeddings[i], "message": "Embedding computed."})
+    logger.info("Batch of %d probe(s) embedded, %d with a face",
+                len(images), sum(1 for r in results if r["success"]))
+    return results
+
+
 def verify_face(image_bytes: bytes) -> dict:
     """
     Compare a captured face against all stored embeddings.
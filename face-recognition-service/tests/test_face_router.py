@@ -1,6 +1,7 @@
 import pytest
 from fastapi.testclient import TestClient
 from app.main import app
+from app.core.config import settings
 
 client = TestClient(app)
 
@@ -19,3 +20,19 @@ def test_verify_face_no_image():
 def test_register_face_no_image():
     response = client.post("/register-face", data={"employee_id": "test-id"})
     assert response.status_code == 422  # Missing required file
+
+
+def test_represent_face_no_image():
+    response = client.post("/represent-face")
+    assert response.status_code == 422  # Missing required part
+
+
+def test_represent_faces_no_image():
+    response = client.post("/represent-faces")
+    assert response.status_code == 422  # Missing required parts
+
+
+def test_represent_faces_rejects_oversized_batch():
+    files = [("images", (f"face{i}.jpg", b"x", "image/jpeg")) for i in range(settings.MAX_BATCH_SIZE + 1)]
+    response = client.post("/represent-faces", files=files)
+    assert response.status_code == 400
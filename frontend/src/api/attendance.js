@@ -1,4 +1,17 @@
 import api from './axiosClient'
+import { FACE_TIMEOUT } from './face'
+
+/**
+ * POST /api/attendance/punch
+ * Verifies the face and records Time-In or Time-Out for the matched employee
+ * in one request.
+ * @param {Blob} imageBlob — JPEG/PNG captured from webcam
+ */
+export const punch = (imageBlob) => {
+  const formData = new FormData()
+  formData.append('image', imageBlob, 'capture.jpg')
+  return api.post('/attendance/punch', formData, { timeout: FACE_TIMEOUT })
+}
 
 /**
  * POST /api/attendance/time-in
@@ -21,9 +34,21 @@ export const timeOut = (employeeId, imageBlob = null) => {
   return api.post('/attendance/time-out', formData, { params: { employeeId } })
 }
 
-/** GET /api/attendance */
-export const getAllLogs = () =>
-  api.get('/attendance')
+/**
+ * GET /api/attendance — newest first, keyset-paginated.
+ * @param {object} params — { employeeId, type, verified, from, to, cursor, limit }
+ *   from/to are ISO date-times; pass the previous page's nextCursor as cursor.
+ */
+export const searchLogs = (params = {}) =>
+  api.get('/attendance', { params })
+
+/**
+ * GET /api/attendance/stream — Server-Sent Events, one 'attendance' event per
+ * recorded punch. EventSource reconnects on its own; close() it when done.
+ * @param {object} params — { employeeId, department }
+ */
+export const openLogStream = (params = {}) =>
+  new EventSource(`${api.defaults.baseURL}/attendance/stream?${new URLSearchParams(params)}`)
 
 /** GET /api/attendance/employee/:employeeId */
 export const getLogsByEmployee = (employeeId) =>
@@ -1,8 +1,12 @@
 import api from './axiosClient'
 
-/** GET /api/employees */
-export const getEmployees = () =>
-  api.get('/employees')
+/**
+ * GET /api/employees — one page of employee summaries.
+ * @param {object} params — { q, department, page, size, sort, direction }
+ *   q matches the start of the name or employee code; page is zero-based.
+ */
+export const getEmployees = (params = {}) =>
+  api.get('/employees', { params })
 
 /** GET /api/employees/:id */
 export const getEmployee = (id) =>
@@ -5,7 +5,7 @@ import api from './axiosClient'
  * @param {Blob} imageBlob — JPEG/PNG captured from webcam
  */
 // Face calls run DeepFace which can take 30-90s on first load
-const FACE_TIMEOUT = 120_000
+export const FACE_TIMEOUT = 120_000
 
 export const verifyFace = (imageBlob) => {
   const formData = new FormData()
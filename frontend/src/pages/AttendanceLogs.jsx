@@ -1,4 +1,4 @@
-import { useEffect, useState } from 'react'
+import { useCallback, useEffect, useState } from 'react'
 import {
   Container, Typography, Box, Table, TableBody, TableCell,
   TableContainer, TableHead, TableRow, Paper, Chip,
@@ -6,44 +6,78 @@ import {
   FormControl, InputLabel, Stack, Button,
 } from '@mui/material'
 import RefreshIcon from '@mui/icons-material/Refresh'
-import { getAllLogs } from '../api/attendance'
+import { searchLogs, openLogStream } from '../api/attendance'
 
 const TYPE_COLOR = { TIME_IN: 'success', TIME_OUT: 'error' }
+const PAGE_SIZE = 50
+
+// Filters are applied by the backend; the date picker maps to a local-day [from, to) range.
+const buildParams = (typeFilter, dateFilter, cursor) => {
+  const params = { limit: PAGE_SIZE }
+  if (typeFilter !== 'ALL') params.type = typeFilter
+  if (dateFilter) {
+    const [y, m, d] = dateFilter.split('-').map(Number)
+    params.from = new Date(y, m - 1, d).toISOString()
+    params.to = new Date(y, m - 1, d + 1).toISOString()
+  }
+  if (cursor) params.cursor = cursor
+  return params
+}
+
+const localDay = (timestamp) => {
+  const d = new Date(timestamp)
+  return `${d.getFullYear()}-${String(d.getMonth() + 1).padStart(2, '0')}-${String(d.getDate()).padStart(2, '0')}`
+}
 
 export default function AttendanceLogs() {
   const [logs, setLogs] = useState([])
-  const [filtered, setFiltered] = useState([])
+  const [nextCursor, setNextCursor] = useState(null)
   const [loading, setLoading] = useState(true)
+  const [loadingMore, setLoadingMore] = useState(false)
   const [error, setError] = useState('')
   const [typeFilter, setTypeFilter] = useState('ALL')
   const [dateFilter, setDateFilter] = useState('')
 
-  const fetchLogs = async () => {
+  const fetchLogs = useCallback(async () => {
     setLoading(true)
+    setError('')
     try {
-      const res = await getAllLogs()
-      setLogs(res.data.data)
+      const res = await searchLogs(buildParams(typeFilter, dateFilter))
+      setLogs(res.data.data.items)
+      setNextCursor(res.data.data.nextCursor)
     } catch {
       setError('Failed to load attendance logs.')
     } finally {
       setLoading(false)
     }
+  }, [typeFilter, dateFilter])
+
+  const fetchMore = async () => {
+    setLoadingMore(true)
+    try {
+      const res = await searchLogs(buildParams(typeFilter, dateFilter, nextCursor))
+      setLogs(prev => [...prev, ...res.data.data.items])
+      setNextCursor(res.data.data.nextCursor)
+    } catch {
+      setError('Failed to load more attendance logs.')
+    } finally {
+      setLoadingMore(false)
+    }
   }
 
-  useEffect(() => { fetchLogs() }, [])
+  useEffect(() => { fetchLogs() }, [fetchLogs])
 
+  // New punches arrive over SSE and are prepended while they match the filters.
   useEffect(() => {
-    let result = [...logs]
-    if (typeFilter !== 'ALL') {
-      result = result.filter(l => l.type === typeFilter)
-    }
-    if (dateFilter) {
-      result = result.filter(l =>
-        new Date(l.timestamp).toLocaleDateString() === new Date(dateFilter).toLocaleDateString()
-      )
-    }
-    setFiltered(result)
-  }, [logs, typeFilter, dateFilter])
+    const source = openLogStream()
+    source.addEventListener('attendance', (event) => {
+      const log = JSON.parse(event.data)
+      if (typeFilter !== 'ALL' && log.type !== typeFilter) return
+      if (dateFilter && localDay(log.timestamp) !== dateFilter) return
+      setLogs(prev => (prev.some(l => l.id === log.id) ? prev : [log, ...prev]))
+    })
+    return () => source.close()
+  }, [typeFilter, dateFilter])
 
   if (loading) return <Box display="flex" justifyContent="center" mt={8}><CircularProgress /></Box>
 
@@ -90,7 +124,7 @@ export default function AttendanceLogs() {
             </TableRow>
           </TableHead>
           <TableBody>
-            {filtered.map(log => (
+            {logs.map(log => (
               <TableRow key={log.id} hover>
                 <TableCell sx={{ fontFamily: 'monospace', fontSize: 12 }}>
                   {log.employeeId}
@@ -120,7 +154,7 @@ export default function AttendanceLogs() {
                 </TableCell>
               </TableRow>
             ))}
-            {filtered.length === 0 && (
+            {logs.length === 0 && (
               <TableRow>
                 <TableCell colSpan={5} align="center">No records found.</TableCell>
               </TableRow>
@@ -128,6 +162,14 @@ export default function AttendanceLogs() {
           </TableBody>
         </Table>
       </TableContainer>
+
+      {nextCursor && (
+        <Box display="flex" justifyContent="center" mt={2}>
+          <Button variant="outlined" onClick={fetchMore} disabled={loadingMore}>
+            {loadingMore ? <CircularProgress size={20} /> : 'Load more'}
+          </Button>
+        </Box>
+      )}
     </Container>
   )
 }
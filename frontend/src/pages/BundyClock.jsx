@@ -1,23 +1,18 @@
 import { useState, useEffect, useCallback } from 'react'
 import {
   Container, Typography, Box, Card, CardContent, Grid,
-  Alert, CircularProgress, Chip, Divider, ToggleButton, ToggleButtonGroup,
+  Alert, CircularProgress, Chip, Divider,
 } from '@mui/material'
-import LoginIcon from '@mui/icons-material/Login'
-import LogoutIcon from '@mui/icons-material/Logout'
 import CheckCircleIcon from '@mui/icons-material/CheckCircle'
 import FaceIcon from '@mui/icons-material/Face'
 import WebcamCapture from '../components/WebcamCapture'
-import { timeIn, timeOut } from '../api/attendance'
-import { verifyFace } from '../api/face'
-import { getEmployees } from '../api/employees'
+import { punch } from '../api/attendance'
 import { useAppContext } from '../context/AppContext'
 
-// status: 'idle' | 'verifying' | 'recording' | 'success' | 'error'
+// status: 'idle' | 'verifying' | 'success' | 'error'
+// The backend decides Time-In vs Time-Out from the employee's last log today.
 export default function BundyClock() {
   const { showSnackbar } = useAppContext()
-  const [employees, setEmployees] = useState([])
-  const [mode, setMode] = useState('TIME_IN')
   const [status, setStatus] = useState('idle')
   const [matchedEmployee, setMatchedEmployee] = useState(null)
   const [confidence, setConfidence] = useState(null)
@@ -30,12 +25,6 @@ export default function BundyClock() {
     return () => clearInterval(timer)
   }, [])
 
-  useEffect(() => {
-    getEmployees()
-      .then(res => setEmployees(res.data.data))
-      .catch(() => {})
-  }, [])
-
   const resetToIdle = useCallback(() => {
     setStatus('idle')
     setMatchedEmployee(null)
@@ -49,9 +38,8 @@ export default function BundyClock() {
     setErrorMsg('')
 
     try {
-      // Step 1 — verify face identity
-      const verifyRes = await verifyFace(blob)
-      const result = verifyRes.data.data  // { matched, employeeId, confidenceScore, message }
+      const res = await punch(blob)
+      const result = res.data.data  // { matched, employeeId, employeeName, department, confidenceScore, type, log, message }
 
       if (!result.matched) {
         setStatus('error')
@@ -59,20 +47,13 @@ export default function BundyClock() {
         return
       }
 
-      // Step 2 — find employee name from local list
-      const emp = employees.find(e => e.id === result.employeeId)
-      setMatchedEmployee(emp ?? { id: result.employeeId, name: 'Unknown' })
+      const emp = { id: result.employeeId, name: result.employeeName ?? 'Unknown', department: result.department }
+      setMatchedEmployee(emp)
       setConfidence(result.confidenceScore)
-      setStatus('recording')
-
-      // Step 3 — auto time-in / time-out
-      const fn = mode === 'TIME_IN' ? timeIn : timeOut
-      const attendRes = await fn(result.employeeId, blob)
-      const actionTime = new Date()
-      setLastAction({ type: mode, employee: emp, time: actionTime, log: attendRes.data.data })
+      setLastAction({ type: result.type, employee: emp, time: new Date(result.log.timestamp), log: result.log })
       setStatus('success')
       showSnackbar(
-        `${mode === 'TIME_IN' ? 'Time-In' : 'Time-Out'} recorded for ${emp?.name ?? 'employee'}!`,
+        `${result.type === 'TIME_IN' ? 'Time-In' : 'Time-Out'} recorded for ${emp.name}!`,
         'success'
       )
     } catch (err) {
@@ -84,7 +65,7 @@ export default function BundyClock() {
     }
   }
 
-  const isProcessing = status === 'verifying' || status === 'recording'
+  const isProcessing = status === 'verifying'
 
   return (
     <Container maxWidth="md" sx={{ mt: 4, mb: 4 }}>
@@ -98,23 +79,6 @@ export default function BundyClock() {
         </Typography>
       </Box>
 
-      {/* Mode Toggle */}
-      <Box display="flex" justifyContent="center" mb={3}>
-        <ToggleButtonGroup
-          value={mode}
-          exclusive
-          onChange={(_, val) => { if (val) { setMode(val); resetToIdle() } }}
-          disabled={isProcessing}
-        >
-          <ToggleButton value="TIME_IN" sx={{ px: 4 }}>
-            <LoginIcon sx={{ mr: 1 }} /> Time In
-          </ToggleButton>
-          <ToggleButton value="TIME_OUT" sx={{ px: 4 }}>
-            <LogoutIcon sx={{ mr: 1 }} /> Time Out
-          </ToggleButton>
-        </ToggleButtonGroup>
-      </Box>
-
       <Grid container spacing={3}>
         {/* Camera */}
         <Grid item xs={12} md={7}>
@@ -122,7 +86,7 @@ export default function BundyClock() {
             <CardContent>
               <Typography variant="subtitle1" fontWeight={600} mb={2}>
                 <FaceIcon fontSize="small" sx={{ mr: 0.5, verticalAlign: 'middle' }} />
-                {mode === 'TIME_IN' ? 'Time In — Face Scan' : 'Time Out — Face Scan'}
+                Face Scan — Time In / Time Out
               </Typography>
               <WebcamCapture
                 onCapture={handleCapture}
@@ -150,19 +114,7 @@ export default function BundyClock() {
               {status === 'verifying' && (
                 <Box display="flex" alignItems="center" gap={1.5}>
                   <CircularProgress size={22} />
-                  <Typography>Identifying face…</Typography>
-                </Box>
-              )}
-
-              {status === 'recording' && (
-                <Box>
-                  <Alert severity="success" sx={{ mb: 1 }}>
-                    Face matched — <strong>{matchedEmployee?.name}</strong>
-                  </Alert>
-                  <Box display="flex" alignItems="center" gap={1.5}>
-                    <CircularProgress size={22} />
-                    <Typography>Recording attendance…</Typography>
-                  </Box>
+                  <Typography>Identifying face and recording attendance…</Typography>
                 </Box>
               )}
 
@@ -170,7 +122,7 @@ export default function BundyClock() {
                 <Alert severity="success" icon={<CheckCircleIcon />}>
                   <Typography fontWeight={700}>{matchedEmployee.name}</Typography>
                   <Typography variant="body2">
-                    {mode === 'TIME_IN' ? 'Timed In' : 'Timed Out'} at{' '}
+                    {lastAction?.type === 'TIME_IN' ? 'Timed In' : 'Timed Out'} at{' '}
                     {lastAction?.time.toLocaleTimeString()}
                   </Typography>
                   {confidence != null && (
@@ -1,7 +1,7 @@
-import { useEffect, useState } from 'react'
+import { useCallback, useEffect, useState } from 'react'
 import {
   Container, Grid, Typography, Button, Box,
-  CircularProgress, Alert, TextField, InputAdornment,
+  CircularProgress, Alert, TextField, InputAdornment, Pagination,
 } from '@mui/material'
 import AddIcon from '@mui/icons-material/Add'
 import SearchIcon from '@mui/icons-material/Search'
@@ -10,36 +10,43 @@ import EmployeeCard from '../components/EmployeeCard'
 import { getEmployees, deleteEmployee } from '../api/employees'
 import { useAppContext } from '../context/AppContext'
 
+const PAGE_SIZE = 24
+const SEARCH_DELAY_MS = 250
+
 export default function EmployeeList() {
   const { showSnackbar } = useAppContext()
   const navigate = useNavigate()
   const [employees, setEmployees] = useState([])
-  const [filtered, setFiltered] = useState([])
+  const [totalPages, setTotalPages] = useState(0)
+  const [page, setPage] = useState(0)
   const [loading, setLoading] = useState(true)
   const [error, setError] = useState('')
   const [search, setSearch] = useState('')
+  const [query, setQuery] = useState('')
+
+  // Search runs on the server; wait for typing to pause before querying.
+  useEffect(() => {
+    const timer = setTimeout(() => {
+      setQuery(search.trim())
+      setPage(0)
+    }, SEARCH_DELAY_MS)
+    return () => clearTimeout(timer)
+  }, [search])
 
-  const fetchEmployees = async () => {
+  const fetchEmployees = useCallback(async () => {
     try {
-      const res = await getEmployees()
-      setEmployees(res.data.data)
-      setFiltered(res.data.data)
+      const res = await getEmployees({ q: query || undefined, page, size: PAGE_SIZE })
+      setEmployees(res.data.data.items)
+      setTotalPages(res.data.data.totalPages)
+      setError('')
     } catch {
       setError('Failed to load employees.')
     } finally {
       setLoading(false)
     }
-  }
+  }, [query, page])
 
-  useEffect(() => { fetchEmployees() }, [])
-
-  useEffect(() => {
-    const q = search.toLowerCase()
-    setFiltered(employees.filter(e =>
-      e.name.toLowerCase().includes(q) ||
-      e.employeeCode.toLowerCase().includes(q)
-    ))
-  }, [search, employees])
+  useEffect(() => { fetchEmployees() }, [fetchEmployees])
 
   const handleDelete = async (id) => {
     if (!window.confirm('Delete this employee?')) return
@@ -80,17 +87,23 @@ export default function EmployeeList() {
       {error && <Alert severity="error" sx={{ mb: 2 }}>{error}</Alert>}
 
       <Grid container spacing={2}>
-        {filtered.map(emp => (
+        {employees.map(emp => (
           <Grid item xs={12} sm={6} md={4} key={emp.id}>
             <EmployeeCard employee={emp} onDelete={handleDelete} />
           </Grid>
         ))}
-        {filtered.length === 0 && (
+        {employees.length === 0 && (
           <Grid item xs={12}>
             <Typography color="text.secondary" textAlign="center">No employees found.</Typography>
           </Grid>
         )}
       </Grid>
+
+      {totalPages > 1 && (
+        <Box display="flex" justifyContent="center" mt={3}>
+          <Pagination count={totalPages} page={page + 1} onChange={(_, value) => setPage(value - 1)} />
+        </Box>
+      )}
     </Container>
   )
 }